@@ -0,0 +1,129 @@
+package ru.practicum.benchmark;
+
+import ru.practicum.category.Category;
+import ru.practicum.compilation.Compilation;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.enums.State;
+import ru.practicum.event.Event;
+import ru.practicum.event.dto.EventShortRow;
+import ru.practicum.location.Location;
+import ru.practicum.model.ViewStats;
+import ru.practicum.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// данные по размеру близки к реальным: аннотация до 2000 символов, описание до 7000
+class BenchmarkData {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 6, 1, 12, 0, 0);
+    private static final String ANNOTATION = "Аннотация события ".repeat(40);
+    private static final String DESCRIPTION = "Подробное описание события ".repeat(100);
+
+    static Event event(long id) {
+        return Event.builder()
+                .id(id)
+                .annotation(ANNOTATION)
+                .category(new Category(id % 20, "Категория " + id % 20))
+                .confirmedRequests((int) (id % 50))
+                .createdOn(NOW.minusDays(10))
+                .description(DESCRIPTION)
+                .eventDate(NOW.plusDays(id % 30))
+                .initiator(new User(id % 100, "Пользователь " + id % 100, "user" + id % 100 + "@mail.ru"))
+                .location(new Location(id, 55.75f, 37.62f))
+                .paid(id % 2 == 0)
+                .participantLimit(100L)
+                .publishedOn(NOW.minusDays(5))
+                .requestModeration(false)
+                .state(State.PUBLISHED)
+                .title("Событие " + id)
+                .views(id * 7)
+                .updatedOn(NOW)
+                .build();
+    }
+
+    static List<Event> events(int size) {
+        List<Event> events = new ArrayList<>(size);
+
+        for (long id = 1; id <= size; id++) {
+            events.add(event(id));
+        }
+
+        return events;
+    }
+
+    static List<EventShortRow> rows(int size) {
+        List<EventShortRow> rows = new ArrayList<>(size);
+
+        for (long id = 1; id <= size; id++) {
+            rows.add(new EventShortRow(id, ANNOTATION, id % 20, "Категория " + id % 20, (int) (id % 50),
+                    NOW.plusDays(id % 30), id % 100, "Пользователь " + id % 100, id % 2 == 0, "Событие " + id,
+                    0, NOW));
+        }
+
+        return rows;
+    }
+
+    static Map<Long, Long> views(int size) {
+        Map<Long, Long> views = new HashMap<>();
+
+        for (long id = 1; id <= size; id++) {
+            views.put(id, id * 7);
+        }
+
+        return views;
+    }
+
+    static List<Compilation> compilations(int count, int eventsPerCompilation) {
+        List<Compilation> compilations = new ArrayList<>(count);
+        List<Event> events = events(eventsPerCompilation);
+
+        for (long id = 1; id <= count; id++) {
+            compilations.add(new Compilation(id, events, id % 2 == 0, "Подборка " + id));
+        }
+
+        return compilations;
+    }
+
+    static List<Long> eventIds(int size) {
+        List<Long> ids = new ArrayList<>(size);
+
+        for (long id = 1; id <= size; id++) {
+            ids.add(id);
+        }
+
+        return ids;
+    }
+
+    static ViewStatsDto[] viewStatsDtos(int size) {
+        ViewStatsDto[] viewStats = new ViewStatsDto[size];
+
+        for (int i = 0; i < size; i++) {
+            viewStats[i] = new ViewStatsDto("ewm-main-service", "/events/" + (i + 1), (i + 1) * 7L);
+        }
+
+        return viewStats;
+    }
+
+    static List<ViewStats> viewStats(int size) {
+        List<ViewStats> viewStats = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            viewStats.add(new ViewStats("ewm-main-service", "/events/" + (i + 1), (i + 1) * 7L));
+        }
+
+        return viewStats;
+    }
+
+    static EndpointHitDto endpointHitDto() {
+        return EndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri("/events/42")
+                .ip("192.168.0.1")
+                .timestamp("2023-06-01 12:00:00")
+                .build();
+    }
+}
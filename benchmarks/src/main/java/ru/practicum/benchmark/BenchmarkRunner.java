@@ -0,0 +1,37 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+// то же, что org.openjdk.jmh.Main, но профилировщик gc включён всегда: кроме времени нужна скорость выделения памяти
+// (gc.alloc.rate.norm — байт на операцию), по ней видно рост мусора на запрос
+public class BenchmarkRunner {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Runner runner = new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build());
+
+        // служебные ключи -h, -l, -lp, -lprof и -lrf обрабатываются так же, как в org.openjdk.jmh.Main
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+        } else if (commandLineOptions.shouldList()) {
+            runner.list();
+        } else if (commandLineOptions.shouldListWithParams()) {
+            runner.listWithParams(commandLineOptions);
+        } else if (commandLineOptions.shouldListProfilers()) {
+            commandLineOptions.listProfilers();
+        } else if (commandLineOptions.shouldListResultFormats()) {
+            commandLineOptions.listResultFormats();
+        } else {
+            runner.run();
+        }
+    }
+}
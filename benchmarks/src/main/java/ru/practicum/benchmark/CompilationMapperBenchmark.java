@@ -0,0 +1,45 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.compilation.Compilation;
+import ru.practicum.compilation.CompilationMapper;
+import ru.practicum.compilation.dto.CompilationDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompilationMapperBenchmark {
+    @Param({"10", "50"})
+    public int compilations;
+
+    @Param({"5", "50"})
+    public int eventsPerCompilation;
+
+    private List<Compilation> compilationList;
+
+    @Setup
+    public void setUp() {
+        compilationList = BenchmarkData.compilations(compilations, eventsPerCompilation);
+    }
+
+    @Benchmark
+    public List<CompilationDto> toCompilationDtoList() {
+        return CompilationMapper.toCompilationDtoList(compilationList);
+    }
+}
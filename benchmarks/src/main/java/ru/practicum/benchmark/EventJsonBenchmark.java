@@ -0,0 +1,56 @@
+package ru.practicum.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.event.EventMapper;
+import ru.practicum.event.dto.EventFullDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventJsonBenchmark {
+    @Param({"1", "100"})
+    public int size;
+
+    private ObjectWriter writer;
+    private EventFullDto event;
+    private List<EventFullDto> events;
+
+    @Setup
+    public void setUp() {
+        // та же настройка, что у MappingJackson2HttpMessageConverter в сервисе
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        event = EventMapper.toEventFullDto(BenchmarkData.event(1));
+        events = EventMapper.toEventFullDtoList(BenchmarkData.events(size));
+    }
+
+    @Benchmark
+    public byte[] writeEventFullDto() throws JsonProcessingException {
+        return writer.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] writeEventFullDtoList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(events);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.event.Event;
+import ru.practicum.event.EventMapper;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventShortRow;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventMapperBenchmark {
+    // 10 — страница по умолчанию, 1000 — выгрузка администратора
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<Event> events;
+    private List<EventShortRow> rows;
+    private Map<Long, Long> views;
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        events = BenchmarkData.events(size);
+        rows = BenchmarkData.rows(size);
+        views = BenchmarkData.views(size);
+        event = BenchmarkData.event(1);
+    }
+
+    @Benchmark
+    public List<EventShortDto> toEventShortDtoListFromEvents() {
+        return EventMapper.toEventShortDtoList(events);
+    }
+
+    // публичный поиск событий строит ответ из строк витрины published_event_feed
+    @Benchmark
+    public List<EventShortDto> toEventShortDtoListFromRows() {
+        return EventMapper.toEventShortDtoList(rows, views);
+    }
+
+    @Benchmark
+    public EventFullDto toEventFullDto() {
+        return EventMapper.toEventFullDto(event);
+    }
+
+    @Benchmark
+    public List<EventFullDto> toEventFullDtoList() {
+        return EventMapper.toEventFullDtoList(events);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.ViewStats;
+import ru.practicum.stats.StatsMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatsMapperBenchmark {
+    @Param({"10", "1000"})
+    public int size;
+
+    private EndpointHitDto endpointHitDto;
+    private EndpointHit endpointHit;
+    private List<ViewStats> viewStats;
+
+    @Setup
+    public void setUp() {
+        endpointHitDto = BenchmarkData.endpointHitDto();
+        endpointHit = StatsMapper.toEndPointHit(endpointHitDto);
+        viewStats = BenchmarkData.viewStats(size);
+    }
+
+    // выполняется на каждое сохраняемое посещение, основная стоимость — разбор даты
+    @Benchmark
+    public EndpointHit toEndPointHit() {
+        return StatsMapper.toEndPointHit(endpointHitDto);
+    }
+
+    @Benchmark
+    public EndpointHitDto toEndpointHitDto() {
+        return StatsMapper.toEndpointHitDto(endpointHit);
+    }
+
+    @Benchmark
+    public void toViewStatsDtos(Blackhole blackhole) {
+        for (ViewStats stats : viewStats) {
+            blackhole.consume(StatsMapper.toViewStatsDto(stats));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.statistics.ViewStatsParser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// разбор ответа сервиса статистики, который StatisticsServiceImpl и EventViewsCache выполняют на каждый запрос
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewStatsParserBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<Long> eventIds;
+    private ViewStatsDto[] viewStats;
+
+    @Setup
+    public void setUp() {
+        eventIds = BenchmarkData.eventIds(size);
+        viewStats = BenchmarkData.viewStatsDtos(size);
+    }
+
+    @Benchmark
+    public Map<Long, Long> toViews() {
+        return ViewStatsParser.toViews(eventIds, viewStats);
+    }
+
+    @Benchmark
+    public List<Long> toEventIds() {
+        return ViewStatsParser.toEventIds(viewStats);
+    }
+
+    @Benchmark
+    public List<String> toUris() {
+        return ViewStatsParser.toUris(eventIds);
+    }
+}
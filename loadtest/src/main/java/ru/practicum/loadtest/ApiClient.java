@@ -0,0 +1,114 @@
+package ru.practicum.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// каждый запрос записывается под шаблоном конечной точки, а не под конкретным uri
+public class ApiClient {
+    private final HttpClient httpClient;
+    private final LatencyRecorder latencyRecorder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration requestTimeout;
+
+    // у HttpClient свой пул потоков: если отдать ему пул генератора, заблокированные в send потоки
+    // не дадут завершиться ответам, которых они ждут
+    public ApiClient(LatencyRecorder latencyRecorder, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.latencyRecorder = latencyRecorder;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Response get(String endpoint, String url, String ifNoneMatch, long startNanos) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+
+        return send(endpoint, request, startNanos);
+    }
+
+    public Response post(String endpoint, String url, Object body, long startNanos) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(bodyPublisher(body)), startNanos);
+    }
+
+    public Response patch(String endpoint, String url, Object body, long startNanos) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method("PATCH", bodyPublisher(body)), startNanos);
+    }
+
+    // время считается от запланированного момента отправки: если генератор не успевает,
+    // ожидание в очереди входит в задержку и не прячется от отчёта
+    private Response send(String endpoint, HttpRequest.Builder request, long startNanos) {
+        try {
+            HttpResponse<String> response = httpClient.send(request.timeout(requestTimeout).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            latencyRecorder.record(endpoint, System.nanoTime() - startNanos, response.statusCode());
+
+            return new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue("ETag").orElse(null));
+        } catch (IOException e) {
+            latencyRecorder.recordError(endpoint, System.nanoTime() - startNanos);
+            return Response.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.FAILED;
+        }
+    }
+
+    public JsonNode readJson(Response response) {
+        try {
+            return objectMapper.readTree(response.getBody());
+        } catch (IOException e) {
+            throw new IllegalStateException("Некорректный ответ сервиса: " + response.getBody(), e);
+        }
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Response {
+        private static final Response FAILED = new Response(-1, "", null);
+
+        private final int status;
+        private final String body;
+        private final String eTag;
+
+        public boolean isSuccessful() {
+            return status / 100 == 2;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// проверка после остановки основного сервиса, когда счётчики EventSlotAdmission уже записаны: лимит события
+// не превышен ни по confirmed_requests, ни по заявкам, а confirmed_requests совпадает с числом подтверждённых заявок
+@Slf4j
+public class ConsistencyCheck {
+    private static final String FIND_VIOLATIONS = "SELECT e.id, e.participant_limit, e.confirmed_requests, " +
+            "COUNT(r.id) AS confirmed FROM events e " +
+            "LEFT JOIN participation_requests r ON r.event_id = e.id AND r.status = 'CONFIRMED' " +
+            "GROUP BY e.id " +
+            "HAVING (e.participant_limit > 0 AND GREATEST(e.confirmed_requests, COUNT(r.id)) > e.participant_limit) " +
+            "OR e.confirmed_requests <> COUNT(r.id) " +
+            "ORDER BY e.id";
+
+    public List<String> findViolations(Connection connection) throws SQLException {
+        List<String> violations = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(FIND_VIOLATIONS)) {
+            while (rs.next()) {
+                violations.add(String.format("событие %d: лимит %d, confirmed_requests %d, подтверждённых заявок %d",
+                        rs.getLong("id"), rs.getInt("participant_limit"), rs.getInt("confirmed_requests"),
+                        rs.getLong("confirmed")));
+            }
+        }
+
+        return violations;
+    }
+
+    public void verify(Connection connection) throws SQLException {
+        List<String> violations = findViolations(connection);
+
+        if (violations.isEmpty()) {
+            log.info("Счётчики подтверждённых заявок согласованы с заявками и не превышают лимиты");
+            return;
+        }
+
+        violations.forEach(violation -> log.error("Нарушен лимит или счётчик заявок: {}", violation));
+        throw new IllegalStateException("Счётчики подтверждённых заявок нарушены у " + violations.size() +
+                " событий");
+    }
+}
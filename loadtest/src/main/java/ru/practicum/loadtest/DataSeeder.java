@@ -0,0 +1,281 @@
+package ru.practicum.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// основная база заполняется SQL-запросами с generate_series: сервис к этому моменту уже применил миграции Flyway;
+// посещения идут через POST /hit/batch, иначе сервис статистики не построит агрегаты и скетчи уникальных ip
+@Slf4j
+public class DataSeeder {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int HIT_SENDERS = 4;
+    private static final int IP_POOL = 50000;
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public DataSeeder(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public SeedData seedMainDatabase(Connection connection) throws SQLException {
+        int users = config.getInt("loadtest.seed.users");
+        int categories = config.getInt("loadtest.seed.categories");
+        int events = config.getInt("loadtest.seed.events");
+        double publishedShare = config.getDouble("loadtest.seed.published-share");
+        int requestsPerEvent = config.getInt("loadtest.seed.requests-per-event");
+        int compilations = config.getInt("loadtest.seed.compilations");
+
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setseed(0.42)");
+
+            statement.execute("INSERT INTO users (name, email) " +
+                    "SELECT 'Пользователь ' || g, 'user' || g || '@loadtest.ru' FROM generate_series(1, " + users + ") g");
+            statement.execute("INSERT INTO categories (name) " +
+                    "SELECT 'Категория ' || g FROM generate_series(1, " + categories + ") g");
+            statement.execute("INSERT INTO locations (lat, lon) " +
+                    "SELECT 40 + g / 1000.0, 30 + g % 1000 / 1000.0 FROM generate_series(1, " + events + ") g");
+
+            // названия и аннотации собираются из словаря, чтобы текстовый поиск находил разное число событий
+            statement.execute("INSERT INTO events (annotation, category_id, confirmed_requests, created_date, " +
+                    "description, event_date, initiator_id, location_id, paid, participant_limit, published_date, " +
+                    "request_moderation, state, title) " +
+                    "SELECT repeat(w.word || ' для всей семьи, подробности на месте. ', 5), " +
+                    "g % " + categories + " + 1, 0, now() - interval '30 days', " +
+                    "repeat('Подробное описание: ' || w.word || ', программа, участники и правила. ', 40), " +
+                    "now() + (g % 180) * interval '1 day' + interval '3 hours', " +
+                    "g % " + users + " + 1, g, g % 2 = 0, " +
+                    "CASE WHEN g % 4 = 0 THEN 0 ELSE 100 + g % 400 END, " +
+                    "CASE WHEN r.published THEN now() - interval '1 day' END, " +
+                    "g % 3 = 0, CASE WHEN r.published THEN 'PUBLISHED' ELSE 'PENDING' END, " +
+                    "initcap(w.word) || ' №' || g " +
+                    "FROM generate_series(1, " + events + ") g " +
+                    "CROSS JOIN LATERAL (SELECT random() < " + publishedShare + " AS published) r " +
+                    "CROSS JOIN LATERAL (SELECT (" + toSqlArray(SeedData.WORDS) + ")[g % " + SeedData.WORDS.length +
+                    " + 1] AS word) w");
+
+            // каждую четвёртую заявку ещё не рассмотрели, остальные подтверждены
+            statement.execute("INSERT INTO participation_requests (created_date, event_id, requester_id, status) " +
+                    "SELECT now() - interval '1 hour', e.id, (e.id * 7919 + k) % " + users + " + 1, " +
+                    "CASE WHEN k % 4 = 0 THEN 'PENDING' ELSE 'CONFIRMED' END " +
+                    "FROM events e CROSS JOIN generate_series(1, " + requestsPerEvent + ") k " +
+                    "WHERE e.state = 'PUBLISHED'");
+            statement.execute("UPDATE events e SET confirmed_requests = r.confirmed " +
+                    "FROM (SELECT event_id, COUNT(*) AS confirmed FROM participation_requests " +
+                    "WHERE status = 'CONFIRMED' GROUP BY event_id) r WHERE r.event_id = e.id");
+
+            statement.execute("INSERT INTO compilations (pinned, title) " +
+                    "SELECT g % 3 = 0, 'Подборка ' || g FROM generate_series(1, " + compilations + ") g");
+            statement.execute("INSERT INTO compilation_events_relation (compilation_id, event_id) " +
+                    "SELECT c.id, e.id FROM compilations c " +
+                    "CROSS JOIN LATERAL (SELECT id FROM events WHERE state = 'PUBLISHED' AND id % " + compilations +
+                    " = c.id % " + compilations + " ORDER BY id LIMIT 10) e");
+        }
+
+        long hotEventId = insertHotEvent(connection);
+        refreshFeed(connection);
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+
+        List<long[]> published = findPublishedEvents(connection);
+        long[] eventIds = new long[published.size()];
+        long[] initiatorIds = new long[published.size()];
+        for (int i = 0; i < published.size(); i++) {
+            eventIds[i] = published.get(i)[0];
+            initiatorIds[i] = published.get(i)[1];
+        }
+
+        log.info("Основная база заполнена за {} с: пользователей {}, событий {}, опубликовано {}",
+                Duration.ofNanos(System.nanoTime() - started).toSeconds(), users, events + 1, eventIds.length);
+
+        return new SeedData(users, categories, eventIds, initiatorIds, hotEventId);
+    }
+
+    // событие с лимитом и без модерации: все заявки на него проходят через счётчики EventSlotAdmission,
+    // а после исчерпания лимита — через отказ без записи
+    private long insertHotEvent(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO locations (lat, lon) VALUES (0, 0)");
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO events (annotation, category_id, " +
+                "confirmed_requests, created_date, description, event_date, initiator_id, location_id, paid, " +
+                "participant_limit, published_date, request_moderation, state, title) " +
+                "SELECT repeat('Главное событие сезона, регистрация открыта для всех. ', 5), 1, 0, now(), " +
+                "repeat('Описание главного события сезона. ', 40), now() + interval '30 days', 1, " +
+                "(SELECT id FROM locations WHERE lat = 0 AND lon = 0), false, ?, now(), false, 'PUBLISHED', " +
+                "'Горячее событие' RETURNING id")) {
+            statement.setInt(1, config.getInt("loadtest.seed.hot-event-limit"));
+
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void refreshFeed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO published_event_feed (event_id, title, annotation, category_id, " +
+                    "category_name, initiator_id, initiator_name, event_date, paid, participant_limit, " +
+                    "confirmed_requests, search_vector, version, updated_on) " +
+                    "SELECT e.id, e.title, e.annotation, c.id, c.name, u.id, u.name, e.event_date, e.paid, " +
+                    "e.participant_limit, COALESCE(e.confirmed_requests, 0), " +
+                    "event_search_vector(e.title, e.annotation, e.description), e.version, e.updated_on " +
+                    "FROM events e JOIN categories c ON c.id = e.category_id JOIN users u ON u.id = e.initiator_id " +
+                    "WHERE e.state = 'PUBLISHED' ON CONFLICT (event_id) DO NOTHING");
+        }
+    }
+
+    private List<long[]> findPublishedEvents(Connection connection) throws SQLException {
+        List<long[]> published = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, initiator_id FROM events " +
+                     "WHERE state = 'PUBLISHED' ORDER BY id")) {
+            while (rs.next()) {
+                published.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+
+        return published;
+    }
+
+    // популярность событий неравномерная: первые в списке получают большую часть посещений
+    public void seedHits(String statsServiceUrl, SeedData seedData) {
+        long hits = config.getLong("loadtest.seed.hits");
+        int batchSize = config.getInt("loadtest.seed.hits-batch-size");
+        int days = config.getInt("loadtest.seed.hits-days");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ExecutorService senders = Executors.newFixedThreadPool(HIT_SENDERS);
+        AtomicLong sent = new AtomicLong();
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int sender = 0; sender < HIT_SENDERS; sender++) {
+                Random random = new Random(sender);
+                long share = hits / HIT_SENDERS + (sender < hits % HIT_SENDERS ? 1 : 0);
+
+                futures.add(senders.submit(() -> {
+                    for (long offset = 0; offset < share; offset += batchSize) {
+                        int size = (int) Math.min(batchSize, share - offset);
+                        postHits(client, statsServiceUrl, hitBatch(random, size, seedData, now, days));
+
+                        long total = sent.addAndGet(size);
+                        if (total / 500_000 != (total - size) / 500_000) {
+                            log.info("Отправлено посещений: {} из {}", total, hits);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Загрузка посещений прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось загрузить посещения", e.getCause());
+        } finally {
+            senders.shutdownNow();
+        }
+
+        log.info("Загружено {} посещений за {} с", sent.get(), Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private String hitBatch(Random random, int size, SeedData seedData, LocalDateTime now, int days) {
+        long[] eventIds = seedData.getPublishedEventIds();
+        StringBuilder body = new StringBuilder(size * 110);
+
+        for (int i = 0; i < size; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            long eventId = eventIds[(int) (skewed * eventIds.length)];
+            LocalDateTime timestamp = now.minusSeconds((long) (random.nextDouble() * days * 86400));
+
+            ObjectNode hit = objectMapper.createObjectNode()
+                    .put("app", "ewm-main-service")
+                    .put("uri", "/events/" + eventId)
+                    .put("ip", ip(random.nextInt(IP_POOL)))
+                    .put("timestamp", timestamp.format(DATE_TIME_FORMATTER));
+            body.append(hit).append('\n');
+        }
+
+        return body.toString();
+    }
+
+    private void postHits(HttpClient client, String statsServiceUrl, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(statsServiceUrl + "/hit/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .timeout(Duration.ofMinutes(2))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Сервис статистики вернул " + response.statusCode() + ": " +
+                        response.body());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось отправить посещения", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Отправка посещений прервана", e);
+        }
+    }
+
+    private static String ip(int index) {
+        return "10." + (index >> 16 & 255) + "." + (index >> 8 & 255) + "." + (index & 255);
+    }
+
+    private static String toSqlArray(String[] words) {
+        StringBuilder array = new StringBuilder("ARRAY[");
+
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                array.append(", ");
+            }
+            array.append('\'').append(words[i]).append('\'');
+        }
+
+        return array.append(']').toString();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// один экземпляр PostgreSQL из бинарников embedded-postgres, внутри две базы — по одной на сервис, как в docker-compose
+@Slf4j
+public class EmbeddedDatabases implements AutoCloseable {
+    public static final String MAIN_DATABASE = "ewm";
+    public static final String STATS_DATABASE = "stats";
+    public static final String USER = "postgres";
+
+    private final EmbeddedPostgres postgres;
+
+    private EmbeddedDatabases(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    public static EmbeddedDatabases start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", "300")
+                    .setServerConfig("shared_buffers", "256MB")
+                    .setServerConfig("fsync", "off")
+                    .setServerConfig("synchronous_commit", "off")
+                    .start();
+
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE " + MAIN_DATABASE);
+                statement.execute("CREATE DATABASE " + STATS_DATABASE);
+            }
+
+            log.info("PostgreSQL запущен на порту {}", postgres.getPort());
+
+            return new EmbeddedDatabases(postgres);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить PostgreSQL", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось создать базы сервисов", e);
+        }
+    }
+
+    public String getJdbcUrl(String database) {
+        return "jdbc:postgresql://localhost:" + postgres.getPort() + "/" + database + "?reWriteBatchedInserts=true";
+    }
+
+    public Connection getConnection(String database) throws SQLException {
+        return DriverManager.getConnection(getJdbcUrl(database), USER, "");
+    }
+
+    @Override
+    public void close() {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            log.warn("Не удалось остановить PostgreSQL: {}", e.getMessage());
+        }
+    }
+}
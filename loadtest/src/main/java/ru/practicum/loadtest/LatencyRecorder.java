@@ -0,0 +1,117 @@
+package ru.practicum.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// задержки в микросекундах по каждой конечной точке; во время прогрева ничего не записывается
+public class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int STATUS_ERROR = -1;
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long recordingStartedNanos;
+    private volatile long recordingStoppedNanos;
+
+    public void startRecording() {
+        endpoints.clear();
+        recordingStartedNanos = System.nanoTime();
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+        recordingStoppedNanos = System.nanoTime();
+    }
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        if (!recording) {
+            return;
+        }
+
+        EndpointLatency latency = endpoints.computeIfAbsent(endpoint, name -> new EndpointLatency());
+        latency.recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        latency.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    public void recordError(String endpoint, long latencyNanos) {
+        record(endpoint, latencyNanos, STATUS_ERROR);
+    }
+
+    // сводная таблица в консоль и в summary.txt, полные распределения — в файлы .hgrm для HdrHistogram plotter
+    public void report(Path reportDir) {
+        double seconds = (recordingStoppedNanos - recordingStartedNanos) / 1e9;
+        Map<String, Histogram> histograms = new TreeMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        endpoints.forEach((endpoint, latency) -> {
+            Histogram histogram = latency.recorder.getIntervalHistogram();
+            histograms.put(endpoint, histogram);
+            total.add(histogram);
+        });
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "%-45s %9s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "count",
+                "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+
+        histograms.forEach((endpoint, histogram) ->
+                summary.append(row(endpoint, histogram, seconds, endpoints.get(endpoint).statuses)));
+        summary.append(row("TOTAL", total, seconds, Map.of()));
+
+        System.out.println();
+        System.out.print(summary);
+
+        try {
+            Files.createDirectories(reportDir);
+            Files.writeString(reportDir.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Path file = reportDir.resolve(fileName(entry.getKey()) + ".hgrm");
+                try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), false,
+                        StandardCharsets.UTF_8)) {
+                    entry.getValue().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить отчёт в " + reportDir, e);
+        }
+    }
+
+    private static String row(String endpoint, Histogram histogram, double seconds, Map<Integer, LongAdder> statuses) {
+        Map<Integer, Long> sortedStatuses = new TreeMap<>();
+        statuses.forEach((status, count) -> sortedStatuses.put(status, count.sum()));
+
+        return String.format(Locale.ROOT, "%-45s %9d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", endpoint,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), sortedStatuses.isEmpty() ? "" : sortedStatuses);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private static class EndpointLatency {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+public class LoadTestConfig {
+    private final Properties properties = new Properties();
+
+    public LoadTestConfig() {
+        try (InputStream inputStream = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            properties.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать loadtest.properties", e);
+        }
+    }
+
+    public String getString(String name) {
+        String value = System.getProperty(name, properties.getProperty(name));
+
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан параметр " + name);
+        }
+
+        return value.trim();
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(getString(name));
+    }
+
+    public long getLong(String name) {
+        return Long.parseLong(getString(name));
+    }
+
+    public double getDouble(String name) {
+        return Double.parseDouble(getString(name));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// порядок важен: сервис статистики при запуске пересоздаёт свои таблицы, основной сервис применяет миграции,
+// поэтому данные загружаются только после того, как оба сервиса поднялись
+@Slf4j
+public class LoadTestRunner {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        int mainPort = config.getInt("loadtest.main-service.port");
+        int statsPort = config.getInt("loadtest.stats-service.port");
+        String mainServiceUrl = "http://localhost:" + mainPort;
+        String statsServiceUrl = "http://localhost:" + statsPort;
+        String jvmArgs = config.getString("loadtest.service.jvm-args");
+        Duration startupTimeout = Duration.ofSeconds(config.getLong("loadtest.service.startup-timeout-seconds"));
+        Path reportDir = Paths.get(config.getString("loadtest.report-dir"));
+
+        try (EmbeddedDatabases databases = EmbeddedDatabases.start();
+             ServiceProcess statsService = ServiceProcess.start("stats-service",
+                     Paths.get(config.getString("loadtest.stats-service.jar")), jvmArgs,
+                     datasourceArguments(databases, EmbeddedDatabases.STATS_DATABASE), statsPort, reportDir,
+                     startupTimeout);
+             ServiceProcess mainService = ServiceProcess.start("main-service",
+                     Paths.get(config.getString("loadtest.main-service.jar")), jvmArgs,
+                     mainServiceArguments(datasourceArguments(databases, EmbeddedDatabases.MAIN_DATABASE),
+                             statsServiceUrl, config.getString("loadtest.main-service.args")),
+                     mainPort, reportDir, startupTimeout)) {
+            DataSeeder seeder = new DataSeeder(config);
+            SeedData seedData;
+            try (Connection connection = databases.getConnection(EmbeddedDatabases.MAIN_DATABASE)) {
+                seedData = seeder.seedMainDatabase(connection);
+            }
+            seeder.seedHits(statsServiceUrl, seedData);
+
+            int threads = config.getInt("loadtest.workload.threads");
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            LatencyRecorder latencyRecorder = new LatencyRecorder();
+            ApiClient apiClient = new ApiClient(latencyRecorder,
+                    Duration.ofMillis(config.getLong("loadtest.workload.request-timeout-ms")));
+            ScenarioContext context = new ScenarioContext(mainServiceUrl, statsServiceUrl, apiClient, seedData);
+
+            new Workload(config, context, latencyRecorder, executor).run(
+                    Duration.ofSeconds(config.getLong("loadtest.workload.warmup-seconds")),
+                    Duration.ofSeconds(config.getLong("loadtest.workload.duration-seconds")));
+
+            latencyRecorder.report(reportDir);
+            log.info("Отчёт сохранён в {}", reportDir.toAbsolutePath());
+
+            // при остановке сервис записывает накопленные счётчики заявок, проверять их можно только после этого
+            mainService.close();
+            try (Connection connection = databases.getConnection(EmbeddedDatabases.MAIN_DATABASE)) {
+                new ConsistencyCheck().verify(connection);
+            }
+        }
+    }
+
+    private static List<String> datasourceArguments(EmbeddedDatabases databases, String database) {
+        return List.of("--spring.datasource.url=" + databases.getJdbcUrl(database),
+                "--spring.datasource.username=" + EmbeddedDatabases.USER,
+                "--spring.datasource.password=");
+    }
+
+    private static List<String> mainServiceArguments(List<String> arguments, String statsServiceUrl,
+                                                     String extraArguments) {
+        List<String> result = new ArrayList<>(arguments);
+        result.add("--stats-server.url=" + statsServiceUrl);
+        for (String argument : extraArguments.split("\\s+")) {
+            if (!argument.isBlank()) {
+                result.add(argument);
+            }
+        }
+        return result;
+    }
+}
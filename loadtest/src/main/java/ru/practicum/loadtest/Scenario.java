@@ -0,0 +1,221 @@
+package ru.practicum.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// сценарии повторяют пользовательские потоки из postman: публичный поиск, заявки на участие, модерация событий
+public enum Scenario {
+    PUBLIC_EVENTS_SEARCH("public-events-search") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            StringBuilder url = new StringBuilder(context.getMainServiceUrl()).append("/events?sort=EVENT_DATE")
+                    .append("&from=").append(random.nextInt(5) * 10).append("&size=10");
+
+            if (random.nextBoolean()) {
+                url.append("&text=").append(ApiClient.encode(context.randomWord()));
+            }
+            if (random.nextBoolean()) {
+                url.append("&categories=").append(context.randomCategoryId())
+                        .append("&categories=").append(context.randomCategoryId());
+            }
+            if (random.nextInt(4) == 0) {
+                url.append("&paid=").append(random.nextBoolean());
+            }
+            if (random.nextInt(4) == 0) {
+                url.append("&onlyAvailable=true");
+            }
+            if (random.nextInt(3) == 0) {
+                LocalDateTime rangeStart = LocalDateTime.now().plusDays(random.nextInt(60));
+                url.append("&rangeStart=").append(ScenarioContext.format(rangeStart))
+                        .append("&rangeEnd=").append(ScenarioContext.format(rangeStart.plusDays(30)));
+            }
+
+            context.getApiClient().get("GET /events", url.toString(), null, startNanos);
+        }
+    },
+
+    PUBLIC_EVENTS_BY_VIEWS("public-events-by-views") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            String url = context.getMainServiceUrl() + "/events?sort=VIEWS&from=0&size=10&categories=" +
+                    context.randomCategoryId();
+
+            context.getApiClient().get("GET /events?sort=VIEWS", url, null, startNanos);
+        }
+    },
+
+    PUBLIC_EVENT_BY_ID("public-event-by-id") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            long eventId = context.popularEventId();
+            String ifNoneMatch = ThreadLocalRandom.current().nextBoolean() ? context.getEventETags().get(eventId) : null;
+
+            ApiClient.Response response = context.getApiClient().get("GET /events/{id}",
+                    context.getMainServiceUrl() + "/events/" + eventId, ifNoneMatch, startNanos);
+
+            if (response.getETag() != null) {
+                context.getEventETags().put(eventId, response.getETag());
+            }
+        }
+    },
+
+    PUBLIC_CATEGORIES("public-categories") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            context.getApiClient().get("GET /categories",
+                    context.getMainServiceUrl() + "/categories?from=0&size=10", null, startNanos);
+        }
+    },
+
+    PUBLIC_COMPILATIONS("public-compilations") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            context.getApiClient().get("GET /compilations",
+                    context.getMainServiceUrl() + "/compilations?pinned=true&from=0&size=10", null, startNanos);
+        }
+    },
+
+    PRIVATE_USER_EVENTS("private-user-events") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            long userId = context.getSeedData().getPublishedEventInitiatorIds()[context.randomPublishedIndex()];
+
+            context.getApiClient().get("GET /users/{userId}/events",
+                    context.getMainServiceUrl() + "/users/" + userId + "/events?from=0&size=10", null, startNanos);
+        }
+    },
+
+    PRIVATE_EVENT_REQUESTS("private-event-requests") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            int index = context.randomPublishedIndex();
+            long eventId = context.getSeedData().getPublishedEventIds()[index];
+            long userId = context.getSeedData().getPublishedEventInitiatorIds()[index];
+
+            context.getApiClient().get("GET /users/{userId}/events/{eventId}/requests",
+                    context.getMainServiceUrl() + "/users/" + userId + "/events/" + eventId + "/requests?size=100",
+                    null, startNanos);
+        }
+    },
+
+    PRIVATE_SIGNUP("private-signup") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            long userId = context.nextUserId(context.getSignupCounter());
+            long eventId = context.popularEventId();
+
+            context.getApiClient().post("POST /users/{userId}/requests", context.getMainServiceUrl() + "/users/" +
+                    userId + "/requests?eventId=" + eventId, null, startNanos);
+        }
+    },
+
+    // все заявки идут на одно событие: проверяет конкуренцию за его счётчик подтверждённых заявок
+    HOT_EVENT_SIGNUP("hot-event-signup") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            long userId = context.nextUserId(context.getHotSignupCounter());
+
+            context.getApiClient().post("POST /users/{userId}/requests (hot event)", context.getMainServiceUrl() +
+                    "/users/" + userId + "/requests?eventId=" + context.getSeedData().getHotEventId(), null, startNanos);
+        }
+    },
+
+    // postman/feature.json: возврат события на доработку с комментарием, исправление и публикация
+    MODERATION_FLOW("moderation-flow") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            ApiClient apiClient = context.getApiClient();
+            String mainServiceUrl = context.getMainServiceUrl();
+            long number = context.getCreatedEventCounter().incrementAndGet();
+            long userId = context.getSeedData().getPublishedEventInitiatorIds()[context.randomPublishedIndex()];
+
+            ApiClient.Response created = apiClient.post("POST /users/{userId}/events",
+                    mainServiceUrl + "/users/" + userId + "/events", newEvent(context, number), startNanos);
+            if (!created.isSuccessful()) {
+                return;
+            }
+            long eventId = apiClient.readJson(created).get("id").asLong();
+
+            ApiClient.Response revision = apiClient.patch("PATCH /admin/events/{eventId}",
+                    mainServiceUrl + "/admin/events/" + eventId,
+                    Map.of("stateAction", "SEND_TO_REVISION", "adminComment", "Уточните место проведения"),
+                    System.nanoTime());
+            if (!revision.isSuccessful()) {
+                return;
+            }
+
+            apiClient.get("GET /users/{userId}/events/{eventId}",
+                    mainServiceUrl + "/users/" + userId + "/events/" + eventId, null, System.nanoTime());
+
+            ApiClient.Response review = apiClient.patch("PATCH /users/{userId}/events/{eventId}",
+                    mainServiceUrl + "/users/" + userId + "/events/" + eventId,
+                    Map.of("stateAction", "SEND_TO_REVIEW", "title", "Исправленное событие №" + number),
+                    System.nanoTime());
+            if (!review.isSuccessful()) {
+                return;
+            }
+
+            apiClient.patch("PATCH /admin/events/{eventId}", mainServiceUrl + "/admin/events/" + eventId,
+                    Map.of("stateAction", "PUBLISH_EVENT"), System.nanoTime());
+        }
+    },
+
+    ADMIN_PENDING_EVENTS("admin-pending-events") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            String url = context.getMainServiceUrl() + "/admin/events?state=PENDING&from=0&size=50&categories=" +
+                    context.randomCategoryId();
+
+            context.getApiClient().get("GET /admin/events", url, null, startNanos);
+        }
+    },
+
+    STATS("stats") {
+        @Override
+        void run(ScenarioContext context, long startNanos) {
+            StringBuilder url = new StringBuilder(context.getStatsServiceUrl()).append("/stats?unique=true")
+                    .append("&start=").append(ScenarioContext.format(LocalDateTime.now().minusDays(30)))
+                    .append("&end=").append(ScenarioContext.format(LocalDateTime.now()));
+
+            for (int i = 0; i < 10; i++) {
+                url.append("&uris=/events/").append(context.popularEventId());
+            }
+
+            context.getApiClient().get("GET /stats", url.toString(), null, startNanos);
+        }
+    };
+
+    private static final DateTimeFormatter EVENT_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String mixKey;
+
+    Scenario(String mixKey) {
+        this.mixKey = mixKey;
+    }
+
+    abstract void run(ScenarioContext context, long startNanos);
+
+    public String getMixProperty() {
+        return "loadtest.mix." + mixKey;
+    }
+
+    // координаты уникальны: таблица locations не допускает двух одинаковых точек
+    private static Map<String, Object> newEvent(ScenarioContext context, long number) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("annotation", "Новое событие нагрузочного теста номер " + number + ", " + context.randomWord());
+        event.put("category", context.randomCategoryId());
+        event.put("description", "Описание события нагрузочного теста номер " + number + ", подробности позже.");
+        event.put("eventDate", LocalDateTime.now().plusDays(10).format(EVENT_DATE_FORMATTER));
+        event.put("location", Map.of("lat", -10 - number / 1000.0, "lon", -10 - number % 1000 / 1000.0));
+        event.put("paid", false);
+        event.put("participantLimit", 50);
+        event.put("requestModeration", true);
+        event.put("title", "Событие нагрузочного теста №" + number);
+
+        return event;
+    }
+}
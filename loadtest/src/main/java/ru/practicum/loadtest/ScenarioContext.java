@@ -0,0 +1,63 @@
+package ru.practicum.loadtest;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class ScenarioContext {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String mainServiceUrl;
+    private final String statsServiceUrl;
+    private final ApiClient apiClient;
+    private final SeedData seedData;
+
+    // пользователи перебираются по кругу, чтобы повторные заявки на одно событие были редкостью
+    private final AtomicLong signupCounter = new AtomicLong();
+    private final AtomicLong hotSignupCounter = new AtomicLong();
+    private final AtomicLong createdEventCounter = new AtomicLong();
+
+    // ETag последнего ответа по событию: часть клиентов перепроверяет свою копию вместо полной загрузки
+    private final Map<Long, String> eventETags = new ConcurrentHashMap<>();
+
+    public ScenarioContext(String mainServiceUrl, String statsServiceUrl, ApiClient apiClient, SeedData seedData) {
+        this.mainServiceUrl = mainServiceUrl;
+        this.statsServiceUrl = statsServiceUrl;
+        this.apiClient = apiClient;
+        this.seedData = seedData;
+    }
+
+    public int randomPublishedIndex() {
+        return ThreadLocalRandom.current().nextInt(seedData.getPublishedEventIds().length);
+    }
+
+    // у популярных событий, как и при загрузке посещений, индексы ближе к началу списка
+    public long popularEventId() {
+        long[] eventIds = seedData.getPublishedEventIds();
+        double skewed = Math.pow(ThreadLocalRandom.current().nextDouble(), 3);
+
+        return eventIds[(int) (skewed * eventIds.length)];
+    }
+
+    public long randomCategoryId() {
+        return ThreadLocalRandom.current().nextInt(seedData.getCategories()) + 1;
+    }
+
+    public long nextUserId(AtomicLong counter) {
+        return counter.getAndIncrement() % seedData.getUsers() + 1;
+    }
+
+    public String randomWord() {
+        return SeedData.WORDS[ThreadLocalRandom.current().nextInt(SeedData.WORDS.length)];
+    }
+
+    public static String format(LocalDateTime dateTime) {
+        return ApiClient.encode(dateTime.format(DATE_TIME_FORMATTER));
+    }
+}
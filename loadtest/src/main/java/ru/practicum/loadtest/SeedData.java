@@ -0,0 +1,19 @@
+package ru.practicum.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// идентификаторы, из которых сценарии выбирают пользователей и события
+@Getter
+@AllArgsConstructor
+public class SeedData {
+    // слова, из которых составлены названия и аннотации событий, по ним же идёт текстовый поиск
+    public static final String[] WORDS = {"концерт", "выставка", "поход", "лекция", "фестиваль", "спектакль",
+            "экскурсия", "мастер-класс", "турнир", "кино", "джаз", "театр", "квест", "йога", "марафон", "ярмарка"};
+
+    private final int users;
+    private final int categories;
+    private final long[] publishedEventIds;
+    private final long[] publishedEventInitiatorIds;
+    private final long hotEventId;
+}
@@ -0,0 +1,128 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// оба сервиса лежат в пакете ru.practicum и не могут подняться в одной JVM, поэтому каждый запускается своим процессом
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+    private final String name;
+    private final Process process;
+
+    private ServiceProcess(String name, Process process) {
+        this.name = name;
+        this.process = process;
+    }
+
+    public static ServiceProcess start(String name, Path jar, String jvmArgs, List<String> arguments, int port,
+                                       Path logDir, Duration startupTimeout) {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден " + jar.toAbsolutePath() +
+                    ", соберите сервисы командой mvn -P loadtest -DskipTests package");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String jvmArg : jvmArgs.split("\\s+")) {
+            if (!jvmArg.isBlank()) {
+                command.add(jvmArg);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+
+        try {
+            Files.createDirectories(logDir);
+            Path logFile = logDir.resolve(name + ".log");
+
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile.toFile())
+                    .start();
+            ServiceProcess serviceProcess = new ServiceProcess(name, process);
+
+            log.info("Запущен {} (pid {}), журнал: {}", name, process.pid(), logFile);
+            serviceProcess.awaitHealthy(port, startupTimeout);
+
+            return serviceProcess;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить " + name, e);
+        }
+    }
+
+    private void awaitHealthy(int port, Duration timeout) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue() +
+                        " при запуске, подробности в журнале");
+            }
+
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} готов к работе на порту {}", name, port);
+                    return;
+                }
+            } catch (IOException ignore) {
+                // сервис ещё не слушает порт
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание запуска " + name + " прервано", e);
+            }
+
+            sleep(500);
+        }
+
+        close();
+        throw new IllegalStateException(name + " не запустился за " + timeout.getSeconds() + " с");
+    }
+
+    // повторный вызов ничего не делает: стенд останавливает основной сервис раньше, чем закрывается try
+    @Override
+    public void close() {
+        if (!process.isAlive()) {
+            return;
+        }
+
+        process.destroy();
+
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+
+        log.info("{} остановлен", name);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
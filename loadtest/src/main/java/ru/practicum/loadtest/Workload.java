@@ -0,0 +1,106 @@
+package ru.practicum.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// открытая модель нагрузки: запросы планируются с постоянной частотой независимо от того, успел ли ответить сервис,
+// иначе медленные ответы снижают нагрузку и хвост задержек занижается (coordinated omission)
+@Slf4j
+public class Workload {
+    private final ScenarioContext context;
+    private final LatencyRecorder latencyRecorder;
+    private final ExecutorService executor;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int rate;
+
+    public Workload(LoadTestConfig config, ScenarioContext context, LatencyRecorder latencyRecorder,
+                    ExecutorService executor) {
+        this.context = context;
+        this.latencyRecorder = latencyRecorder;
+        this.executor = executor;
+        this.rate = config.getInt("loadtest.workload.rate-per-second");
+
+        List<Scenario> enabled = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (Scenario scenario : Scenario.values()) {
+            int weight = config.getInt(scenario.getMixProperty());
+            if (weight > 0) {
+                enabled.add(scenario);
+                weights.add(weight);
+            }
+        }
+
+        this.scenarios = enabled.toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            sum += weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public void run(Duration warmup, Duration duration) {
+        log.info("Прогрев {} с при {} запросах в секунду", warmup.getSeconds(), rate);
+        generate(warmup);
+
+        latencyRecorder.startRecording();
+        log.info("Измерение {} с при {} запросах в секунду", duration.getSeconds(), rate);
+        generate(duration);
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Не все запросы завершились за минуту после окончания измерения");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        latencyRecorder.stopRecording();
+    }
+
+    private void generate(Duration duration) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long next = System.nanoTime();
+        long end = next + duration.toNanos();
+
+        while (next < end) {
+            long delay = next - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            long intendedStart = next;
+            Scenario scenario = pickScenario();
+            executor.execute(() -> {
+                try {
+                    scenario.run(context, intendedStart);
+                } catch (RuntimeException e) {
+                    log.warn("Сценарий {} завершился с ошибкой: {}", scenario, e.getMessage());
+                }
+            });
+
+            next += intervalNanos;
+        }
+    }
+
+    private Scenario pickScenario() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+
+        return scenarios[scenarios.length - 1];
+    }
+}
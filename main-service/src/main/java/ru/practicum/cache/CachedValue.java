@@ -0,0 +1,11 @@
+package ru.practicum.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CachedValue<V> {
+    private final V value;
+    private final ResourceVersion version;
+}
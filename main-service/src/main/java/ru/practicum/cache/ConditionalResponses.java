@@ -0,0 +1,45 @@
+package ru.practicum.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+public class ConditionalResponses {
+    // клиент с актуальной копией получает 304 без тела: значение берётся из кеша и не сериализуется
+    public static <T> ResponseEntity<T> of(WebRequest webRequest, CachedValue<T> cachedValue) {
+        return of(webRequest, cachedValue.getVersion(), CacheControl.empty(), cachedValue::getValue);
+    }
+
+    public static <T> ResponseEntity<T> of(WebRequest webRequest, CachedValue<T> cachedValue,
+                                           CacheControl cacheControl) {
+        return of(webRequest, cachedValue.getVersion(), cacheControl, cachedValue::getValue);
+    }
+
+    // тело собирается только если версия клиента устарела
+    public static <T> ResponseEntity<T> of(WebRequest webRequest, ResourceVersion version, CacheControl cacheControl,
+                                           Supplier<T> body) {
+        long lastModified = version.getLastModified() != null
+                ? version.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+
+        if (webRequest.checkNotModified(version.getETag(), lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(version.getETag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(version.getETag())
+                .cacheControl(cacheControl);
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+
+        return response.body(body.get());
+    }
+}
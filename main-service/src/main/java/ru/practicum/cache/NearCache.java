@@ -0,0 +1,72 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class NearCache<K, V> {
+    private final Cache<K, CachedValue<V>> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    private final ObjectMapper objectMapper;
+
+    // кеш служебных значений, которые не отдаются клиенту как тело ответа: ETag не вычисляется
+    public NearCache(long maxSize, long ttlSeconds) {
+        this(maxSize, ttlSeconds, null);
+    }
+
+    public NearCache(long maxSize, long ttlSeconds, ObjectMapper objectMapper) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public CachedValue<V> get(K key, Supplier<V> loader) {
+        CachedValue<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadEpoch = epoch.get();
+        V value = loader.get();
+        CachedValue<V> loaded = new CachedValue<>(value,
+                objectMapper != null ? new ResourceVersion(eTagOf(value), null) : null);
+        cache.put(key, loaded);
+
+        // кеш сбросили, пока значение читалось из базы: оно могло быть прочитано до изменения, поэтому не хранится
+        if (epoch.get() != loadEpoch) {
+            cache.invalidate(key);
+        }
+
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // загрузки, начатые до сброса, тоже не сохраняются: они могли прочитать значение до изменения
+    public void invalidateIf(Predicate<V> predicate) {
+        epoch.incrementAndGet();
+        cache.asMap().values().removeIf(cached -> predicate.test(cached.getValue()));
+    }
+
+    // ETag зависит только от тела ответа: после сброса кеша или перезапуска сервиса неизменившиеся данные
+    // дают тот же ETag, и клиент получает 304
+    private String eTagOf(V value) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать значение для ETag", e);
+        }
+    }
+}
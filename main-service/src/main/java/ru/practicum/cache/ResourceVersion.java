@@ -0,0 +1,13 @@
+package ru.practicum.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+    private final String eTag;
+    private final LocalDateTime lastModified;
+}
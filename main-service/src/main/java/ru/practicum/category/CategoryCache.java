@@ -0,0 +1,51 @@
+package ru.practicum.category;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.cache.CachedValue;
+import ru.practicum.cache.NearCache;
+import ru.practicum.category.dto.CategoryDto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Component
+public class CategoryCache {
+    private static final String ALL_IDS_KEY = "all";
+
+    private final NearCache<String, List<CategoryDto>> pages;
+    private final NearCache<Long, CategoryDto> categories;
+    private final NearCache<String, Set<Long>> categoryIds;
+
+    public CategoryCache(@Value("${ewm.cache.categories.max-size:1000}") long maxSize,
+                         @Value("${ewm.cache.categories.ttl-seconds:300}") long ttlSeconds,
+                         ObjectMapper objectMapper) {
+        this.pages = new NearCache<>(maxSize, ttlSeconds, objectMapper);
+        this.categories = new NearCache<>(maxSize, ttlSeconds, objectMapper);
+        this.categoryIds = new NearCache<>(1, ttlSeconds);
+    }
+
+    public CachedValue<List<CategoryDto>> getPage(int from, int size, Supplier<List<CategoryDto>> loader) {
+        return pages.get(from + ":" + size, loader);
+    }
+
+    public CachedValue<CategoryDto> getCategory(long catId, Supplier<CategoryDto> loader) {
+        return categories.get(catId, loader);
+    }
+
+    public Set<Long> getCategoryIds(Supplier<Set<Long>> loader) {
+        return categoryIds.get(ALL_IDS_KEY, loader).getValue();
+    }
+
+    // кеш сбрасывается только после фиксации, иначе параллельное чтение успеет закешировать старое состояние
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        pages.invalidateAll();
+        categories.invalidateAll();
+        categoryIds.invalidateAll();
+    }
+}
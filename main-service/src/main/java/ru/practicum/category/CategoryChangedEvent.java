@@ -0,0 +1,10 @@
+package ru.practicum.category;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+    private final long categoryId;
+}
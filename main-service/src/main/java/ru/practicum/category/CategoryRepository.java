@@ -1,9 +1,14 @@
 package ru.practicum.category;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findAllByIdIn(List<Long> categoriesIds);
+
+    @Query("SELECT c.id FROM Category c")
+    Set<Long> findAllIds();
 }
@@ -2,13 +2,14 @@ package ru.practicum.category.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.cache.ConditionalResponses;
 import ru.practicum.category.dto.CategoryDto;
 import ru.practicum.category.service.CategoryPublicService;
 
@@ -24,19 +25,18 @@ public class CategoryControllerPublic {
     private final CategoryPublicService categoryPublicService;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CategoryDto> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                           @RequestParam(defaultValue = "10") @Positive int size) {
+    public ResponseEntity<List<CategoryDto>> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                           @RequestParam(defaultValue = "10") @Positive int size,
+                                                           WebRequest webRequest) {
         log.info("получен запрос на получение категорий");
 
-        return categoryPublicService.getCategories(from, size);
+        return ConditionalResponses.of(webRequest, categoryPublicService.getCategories(from, size));
     }
 
     @GetMapping("/{catId}")
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryDto getCategory(@PathVariable long catId) {
+    public ResponseEntity<CategoryDto> getCategory(@PathVariable long catId, WebRequest webRequest) {
         log.info("получен запрос на получение категории c id = " + catId);
 
-        return categoryPublicService.getCategory(catId);
+        return ConditionalResponses.of(webRequest, categoryPublicService.getCategory(catId));
     }
 }
@@ -2,9 +2,11 @@ package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.Category;
+import ru.practicum.category.CategoryChangedEvent;
 import ru.practicum.category.CategoryMapper;
 import ru.practicum.category.CategoryRepository;
 import ru.practicum.category.dto.CategoryDto;
@@ -17,6 +19,7 @@ import ru.practicum.exception.CategoryNotFoundException;
 @Slf4j
 public class CategoryAdminServiceImpl implements CategoryAdminService {
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -24,6 +27,7 @@ public class CategoryAdminServiceImpl implements CategoryAdminService {
         Category categoryToSave = CategoryMapper.toCategory(newCategoryDto);
         Category savedCategory = categoryRepository.save(categoryToSave);
         log.info("Добавлена категория: " + savedCategory.toString());
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
 
         return CategoryMapper.toCategoryDto(savedCategory);
     }
@@ -35,6 +39,7 @@ public class CategoryAdminServiceImpl implements CategoryAdminService {
 
         categoryRepository.deleteById(catId);
         log.info("Удалена категория с id: " + catId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(catId));
     }
 
     @Override
@@ -46,6 +51,7 @@ public class CategoryAdminServiceImpl implements CategoryAdminService {
         categoryToUpdate.setId(catId);
         Category savedCategory = categoryRepository.save(categoryToUpdate);
         log.info("Обновлена категория: " + savedCategory.toString());
+        eventPublisher.publishEvent(new CategoryChangedEvent(catId));
 
         return CategoryMapper.toCategoryDto(savedCategory);
     }
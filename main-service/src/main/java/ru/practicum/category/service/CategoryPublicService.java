@@ -1,11 +1,12 @@
 package ru.practicum.category.service;
 
+import ru.practicum.cache.CachedValue;
 import ru.practicum.category.dto.CategoryDto;
 
 import java.util.List;
 
 public interface CategoryPublicService {
-    List<CategoryDto> getCategories(int from, int size);
+    CachedValue<List<CategoryDto>> getCategories(int from, int size);
 
-    CategoryDto getCategory(long catId);
+    CachedValue<CategoryDto> getCategory(long catId);
 }
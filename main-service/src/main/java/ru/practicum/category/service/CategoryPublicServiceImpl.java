@@ -1,15 +1,18 @@
 package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CachedValue;
 import ru.practicum.category.Category;
+import ru.practicum.category.CategoryCache;
 import ru.practicum.category.CategoryMapper;
 import ru.practicum.category.CategoryRepository;
 import ru.practicum.category.dto.CategoryDto;
 import ru.practicum.exception.CategoryNotFoundException;
+import ru.practicum.pagination.FromSizeRequest;
 
 import java.util.List;
 
@@ -18,20 +21,21 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class CategoryPublicServiceImpl implements CategoryPublicService {
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
 
     @Override
-    public List<CategoryDto> getCategories(int from, int size) {
-        Pageable pageable = PageRequest.of((from / size), size);
-        List<Category> categories = categoryRepository.findAll(pageable).getContent();
+    public CachedValue<List<CategoryDto>> getCategories(int from, int size) {
+        return categoryCache.getPage(from, size, () -> {
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.by("id"));
+            List<Category> categories = categoryRepository.findAll(pageable).getContent();
 
-        return CategoryMapper.toCategoryDtoList(categories);
+            return CategoryMapper.toCategoryDtoList(categories);
+        });
     }
 
     @Override
-    public CategoryDto getCategory(long catId) {
-        Category category = findCategoryById(catId);
-
-        return CategoryMapper.toCategoryDto(category);
+    public CachedValue<CategoryDto> getCategory(long catId) {
+        return categoryCache.getCategory(catId, () -> CategoryMapper.toCategoryDto(findCategoryById(catId)));
     }
 
     private Category findCategoryById(long catId) {
@@ -0,0 +1,71 @@
+package ru.practicum.compilation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.cache.CachedValue;
+import ru.practicum.cache.NearCache;
+import ru.practicum.category.CategoryChangedEvent;
+import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.event.EventChangedEvent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// в подборки входят события с категориями и просмотрами, поэтому кеш сбрасывается и при изменении событий
+// и категорий; при изменении событий сбрасываются только подборки с этими событиями, а просмотры устаревают
+// не дольше чем на время жизни записи
+@Component
+public class CompilationCache {
+    private final NearCache<String, List<CompilationDto>> pages;
+    private final NearCache<Long, CompilationDto> compilations;
+
+    public CompilationCache(@Value("${ewm.cache.compilations.max-size:1000}") long maxSize,
+                            @Value("${ewm.cache.compilations.ttl-seconds:30}") long ttlSeconds,
+                            ObjectMapper objectMapper) {
+        this.pages = new NearCache<>(maxSize, ttlSeconds, objectMapper);
+        this.compilations = new NearCache<>(maxSize, ttlSeconds, objectMapper);
+    }
+
+    public CachedValue<List<CompilationDto>> getPage(Boolean pinned, int from, int size, String cursor,
+                                                     Supplier<List<CompilationDto>> loader) {
+        return pages.get(pinned + ":" + from + ":" + size + ":" + cursor, loader);
+    }
+
+    public CachedValue<CompilationDto> getCompilation(long compId, Supplier<CompilationDto> loader) {
+        return compilations.get(compId, loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCompilationChanged(CompilationChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventChanged(EventChangedEvent event) {
+        Set<Long> eventIds = new HashSet<>(event.getEventIds());
+
+        // заявки на участие меняют событие постоянно, поэтому весь кеш из-за них не сбрасывается
+        compilations.invalidateIf(compilation -> containsAny(compilation, eventIds));
+        pages.invalidateIf(page -> page.stream().anyMatch(compilation -> containsAny(compilation, eventIds)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+    }
+
+    private boolean containsAny(CompilationDto compilation, Set<Long> eventIds) {
+        return compilation.getEvents() != null && compilation.getEvents().stream()
+                .anyMatch(eventShortDto -> eventIds.contains(eventShortDto.getId()));
+    }
+
+    private void invalidateAll() {
+        pages.invalidateAll();
+        compilations.invalidateAll();
+    }
+}
@@ -1,9 +1,22 @@
 package ru.practicum.compilation;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
-    Page<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+    List<Compilation> findAllBy(Pageable pageable);
+
+    List<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+
+    List<Compilation> findAllByIdGreaterThan(long id, Pageable pageable);
+
+    List<Compilation> findAllByPinnedAndIdGreaterThan(Boolean pinned, long id, Pageable pageable);
+
+    @Query("SELECT DISTINCT c FROM Compilation c LEFT JOIN FETCH c.events AS e LEFT JOIN FETCH e.category " +
+            "LEFT JOIN FETCH e.initiator WHERE c.id IN :ids")
+    List<Compilation> findAllWithEventsByIdIn(Collection<Long> ids);
 }
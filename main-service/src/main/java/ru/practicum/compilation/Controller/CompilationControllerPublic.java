@@ -2,17 +2,21 @@ package ru.practicum.compilation.Controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.cache.CachedValue;
+import ru.practicum.cache.ConditionalResponses;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.service.CompilationPublicService;
+import ru.practicum.pagination.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -26,20 +30,25 @@ public class CompilationControllerPublic {
     private final CompilationPublicService compilationPublicService;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CompilationDto> findAll(@RequestParam(required = false) Boolean pinned,
-                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                        @RequestParam(defaultValue = "10") @Positive int size) {
+    public ResponseEntity<List<CompilationDto>> findAll(@RequestParam(required = false) Boolean pinned,
+                                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                        @RequestParam(defaultValue = "10") @Positive int size,
+                                                        @RequestParam(required = false) String cursor,
+                                                        HttpServletResponse response,
+                                                        WebRequest webRequest) {
         log.info("получен запрос на получение подборок событий");
 
-        return compilationPublicService.findAll(pinned, from, size);
+        CachedValue<List<CompilationDto>> compilations = compilationPublicService.findAll(pinned, from, size, cursor);
+        PageCursor.addNextCursorHeader(response, compilations.getValue(), size,
+                compilation -> PageCursor.encode(compilation.getId()));
+
+        return ConditionalResponses.of(webRequest, compilations);
     }
 
     @GetMapping("/{compId}")
-    @ResponseStatus(HttpStatus.OK)
-    public CompilationDto findById(@PathVariable long compId) {
+    public ResponseEntity<CompilationDto> findById(@PathVariable long compId, WebRequest webRequest) {
         log.info("получен запрос на получение подборки событий с id = " + compId);
 
-        return compilationPublicService.getCompilationById(compId);
+        return ConditionalResponses.of(webRequest, compilationPublicService.getCompilationById(compId));
     }
 }
@@ -1,9 +1,11 @@
 package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.compilation.Compilation;
+import ru.practicum.compilation.CompilationChangedEvent;
 import ru.practicum.compilation.CompilationMapper;
 import ru.practicum.compilation.CompilationRepository;
 import ru.practicum.compilation.dto.CompilationDto;
@@ -23,6 +25,7 @@ import java.util.List;
 public class CompilationAdminServiceImpl implements CompilationAdminService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -34,8 +37,10 @@ public class CompilationAdminServiceImpl implements CompilationAdminService {
         }
 
         Compilation compilation = CompilationMapper.toCompilation(newCompilationDto, events);
+        Compilation savedCompilation = compilationRepository.save(compilation);
+        eventPublisher.publishEvent(new CompilationChangedEvent(savedCompilation.getId()));
 
-        return CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        return CompilationMapper.toCompilationDto(savedCompilation);
     }
 
     @Override
@@ -44,6 +49,7 @@ public class CompilationAdminServiceImpl implements CompilationAdminService {
         findCompilationById(compId);
 
         compilationRepository.deleteById(compId);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compId));
     }
 
     @Override
@@ -70,7 +76,10 @@ public class CompilationAdminServiceImpl implements CompilationAdminService {
             compilation.setTitle(updateCompilationRequest.getTitle());
         }
 
-        return CompilationMapper.toCompilationDto(compilationRepository.save(compilation));
+        Compilation savedCompilation = compilationRepository.save(compilation);
+        eventPublisher.publishEvent(new CompilationChangedEvent(compId));
+
+        return CompilationMapper.toCompilationDto(savedCompilation);
     }
 
     private Compilation findCompilationById(long compId) {
@@ -1,11 +1,12 @@
 package ru.practicum.compilation.service;
 
+import ru.practicum.cache.CachedValue;
 import ru.practicum.compilation.dto.CompilationDto;
 
 import java.util.List;
 
 public interface CompilationPublicService {
-    List<CompilationDto> findAll(Boolean pinned, int from, int size);
+    CachedValue<List<CompilationDto>> findAll(Boolean pinned, int from, int size, String cursor);
 
-    CompilationDto getCompilationById(long compId);
+    CachedValue<CompilationDto> getCompilationById(long compId);
 }
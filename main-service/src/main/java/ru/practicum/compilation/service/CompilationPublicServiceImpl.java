@@ -1,46 +1,91 @@
 package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CachedValue;
 import ru.practicum.compilation.Compilation;
+import ru.practicum.compilation.CompilationCache;
 import ru.practicum.compilation.CompilationMapper;
 import ru.practicum.compilation.CompilationRepository;
 import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.event.Event;
 import ru.practicum.exception.CompilationNotFoundException;
+import ru.practicum.pagination.FromSizeRequest;
+import ru.practicum.pagination.PageCursor;
+import ru.practicum.statistics.StatisticsService;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CompilationPublicServiceImpl implements CompilationPublicService {
     private final CompilationRepository compilationRepository;
+    private final StatisticsService statisticsService;
+    private final CompilationCache compilationCache;
 
     @Override
-    public List<CompilationDto> findAll(Boolean pinned, int from, int size) {
-        Pageable pageable = PageRequest.of((from / size), size);
-        Page<Compilation> compilations;
+    public CachedValue<List<CompilationDto>> findAll(Boolean pinned, int from, int size, String cursor) {
+        return compilationCache.getPage(pinned, from, size, cursor, () -> loadCompilations(pinned, from, size, cursor));
+    }
+
+    @Override
+    public CachedValue<CompilationDto> getCompilationById(long compId) {
+        return compilationCache.getCompilation(compId, () -> {
+            Compilation compilation = findCompilationById(compId);
+            fetchEventsWithViews(List.of(compilation));
+
+            return CompilationMapper.toCompilationDto(compilation);
+        });
+    }
+
+    private List<CompilationDto> loadCompilations(Boolean pinned, int from, int size, String cursor) {
+        List<Compilation> compilationsList;
 
-        if (pinned != null) {
-            compilations = compilationRepository.findAllByPinned(pinned, pageable);
+        if (cursor != null) {
+            long afterId = PageCursor.decode(cursor).getId();
+            Pageable pageable = FromSizeRequest.of(0, size, Sort.by("id"));
+
+            if (pinned != null) {
+                compilationsList = compilationRepository.findAllByPinnedAndIdGreaterThan(pinned, afterId, pageable);
+            } else {
+                compilationsList = compilationRepository.findAllByIdGreaterThan(afterId, pageable);
+            }
         } else {
-            compilations = compilationRepository.findAll(pageable);
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.by("id"));
+
+            if (pinned != null) {
+                compilationsList = compilationRepository.findAllByPinned(pinned, pageable);
+            } else {
+                compilationsList = compilationRepository.findAllBy(pageable);
+            }
         }
 
-        List<Compilation> compilationsList = compilations.getContent();
+        fetchEventsWithViews(compilationsList);
 
         return CompilationMapper.toCompilationDtoList(compilationsList);
     }
 
-    @Override
-    public CompilationDto getCompilationById(long compId) {
-        Compilation compilation = findCompilationById(compId);
+    // подборки уже в контексте персистентности, поэтому второй запрос только инициализирует их события
+    // вместе с категориями и инициаторами, а просмотры запрашиваются один раз для всей страницы
+    private void fetchEventsWithViews(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return;
+        }
+
+        compilationRepository.findAllWithEventsByIdIn(compilations.stream()
+                .map(Compilation::getId)
+                .collect(Collectors.toList()));
+
+        List<Event> events = compilations.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .collect(Collectors.toList());
 
-        return CompilationMapper.toCompilationDto(compilation);
+        statisticsService.findAndSetViewsToEvents(events);
     }
 
     private Compilation findCompilationById(long compId) {
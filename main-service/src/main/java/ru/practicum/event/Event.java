@@ -20,8 +20,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
@@ -41,7 +44,8 @@ public class Event {
     @ToString.Exclude
     private Category category;
 
-    @Column(name = "confirmed_requests")
+    // счётчик меняется только атомарными запросами EventRepository.reserveSlots/releaseSlots
+    @Column(name = "confirmed_requests", updatable = false)
     private int confirmedRequests;
 
     @Column(name = "created_date")
@@ -77,4 +81,17 @@ public class Event {
 
     @Transient
     private long views;
+
+    @Version
+    private long version;
+
+    // меняется и при изменении счётчика подтверждённых заявок, поэтому пригоден для Last-Modified
+    @Column(name = "updated_on")
+    private LocalDateTime updatedOn;
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        updatedOn = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class EventChangedEvent {
+    private final Collection<Long> eventIds;
+}
@@ -2,17 +2,21 @@ package ru.practicum.event;
 
 import ru.practicum.category.Category;
 import ru.practicum.category.CategoryMapper;
+import ru.practicum.category.dto.CategoryDto;
 import ru.practicum.enums.State;
 import ru.practicum.event.dto.EventFullCommentDto;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventShortRow;
 import ru.practicum.event.dto.NewEventDto;
 import ru.practicum.location.Location;
 import ru.practicum.user.User;
 import ru.practicum.user.UserMapper;
+import ru.practicum.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -84,6 +88,28 @@ public class EventMapper {
                 .collect(Collectors.toList());
     }
 
+    public static EventShortDto toEventShortDto(EventShortRow row, long views) {
+        return EventShortDto.builder()
+                .id(row.getId())
+                .views(views)
+                .annotation(row.getAnnotation())
+                .category(new CategoryDto(row.getCategoryId(), row.getCategoryName()))
+                .eventDate(Optional.ofNullable(row.getEventDate())
+                        .map(dateTime -> dateTime.format(mainDateTimeFormatter))
+                        .orElse(null))
+                .initiator(new UserShortDto(row.getInitiatorId(), row.getInitiatorName()))
+                .paid(row.getPaid() != null ? row.getPaid() : false)
+                .title(row.getTitle())
+                .confirmedRequests(row.getConfirmedRequests())
+                .build();
+    }
+
+    public static List<EventShortDto> toEventShortDtoList(List<EventShortRow> rows, Map<Long, Long> views) {
+        return rows.stream()
+                .map(row -> toEventShortDto(row, views.getOrDefault(row.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
     public static EventFullDto toEventFullDto(Event event) {
         return EventFullDto.builder()
                 .id(event.getId())
@@ -2,6 +2,7 @@ package ru.practicum.event;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.enums.State;
 
@@ -17,22 +18,13 @@ public interface EventRepository extends JpaRepository<Event, Long> {
                                 LocalDateTime rangeStart, LocalDateTime rangeEnd, Pageable pageable);
 
     @Query("SELECT e FROM Event e JOIN FETCH e.category AS c JOIN FETCH e.initiator AS i JOIN FETCH e.location AS l " +
-            "WHERE e.state = 'PUBLISHED' AND (:text IS NULL OR LOWER(e.title) LIKE LOWER(concat('%', :text, '%')) " +
-            "OR LOWER(e.annotation) " +
-            "LIKE LOWER(concat('%', :text, '%'))) AND (:categories IS NULL OR c.id in :categories) " +
-            "AND (:paid IS NULL OR e.paid = :paid) AND e.eventDate BETWEEN :rangeStart AND :rangeEnd " +
-            "AND (:onlyAvailable IS NULL OR e.confirmedRequests < e.participantLimit)")
-    List<Event> findPublishedEventsByParams(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                                            LocalDateTime rangeEnd, Boolean onlyAvailable, Pageable pageable);
-
-    @Query("SELECT e.id FROM Event e " +
-            "WHERE e.state = 'PUBLISHED' AND (:text IS NULL OR LOWER(e.title) LIKE LOWER(concat('%', :text, '%')) " +
-            "OR LOWER(e.annotation) " +
-            "LIKE LOWER(concat('%', :text, '%'))) AND (:categories IS NULL OR e.category.id in :categories) " +
-            "AND (:paid IS NULL OR e.paid = :paid) AND e.eventDate BETWEEN :rangeStart AND :rangeEnd " +
-            "AND (:onlyAvailable IS NULL OR e.confirmedRequests < e.participantLimit)")
-    List<Long> findAllPublishedEventsIdsByParams(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
-                                                 LocalDateTime rangeEnd, Boolean onlyAvailable);
+            "WHERE (:users IS NULL OR i.id IN :users) AND (:states IS NULL or e.state IN :states) " +
+            "AND (:categories IS NULL OR c.id in :categories) AND e.eventDate BETWEEN :rangeStart AND :rangeEnd " +
+            "AND (e.eventDate > :afterEventDate OR (e.eventDate = :afterEventDate AND e.id > :afterId)) " +
+            "ORDER BY e.eventDate, e.id")
+    List<Event> findAllByParamsAfter(List<Long> users, List<State> states, List<Long> categories,
+                                     LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                     LocalDateTime afterEventDate, long afterId, Pageable pageable);
 
     @Query("SELECT e FROM Event e JOIN FETCH e.category AS c JOIN FETCH e.initiator AS i JOIN FETCH e.location AS l " +
             "WHERE e.id IN :eventsIds")
@@ -45,4 +37,25 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e JOIN FETCH e.category AS c JOIN FETCH e.initiator AS i JOIN FETCH e.location AS l " +
             "WHERE i.id = :userId")
     List<Event> findByInitiatorId(long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.category AS c JOIN FETCH e.initiator AS i JOIN FETCH e.location AS l " +
+            "WHERE i.id = :userId " +
+            "AND (e.eventDate > :afterEventDate OR (e.eventDate = :afterEventDate AND e.id > :afterId)) " +
+            "ORDER BY e.eventDate, e.id")
+    List<Event> findByInitiatorIdAfter(long userId, LocalDateTime afterEventDate, long afterId, Pageable pageable);
+
+    @Query("SELECT e.confirmedRequests FROM Event e WHERE e.id = :eventId")
+    int findConfirmedRequestsById(long eventId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :count, e.updatedOn = CURRENT_TIMESTAMP " +
+            "WHERE e.id = :eventId " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests + :count <= e.participantLimit)")
+    int reserveSlots(long eventId, int count);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests - :count, e.updatedOn = CURRENT_TIMESTAMP " +
+            "WHERE e.id = :eventId " +
+            "AND e.confirmedRequests >= :count")
+    int releaseSlots(long eventId, int count);
+}
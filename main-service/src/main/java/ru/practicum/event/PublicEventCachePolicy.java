@@ -0,0 +1,57 @@
+package ru.practicum.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import ru.practicum.cache.ResourceVersion;
+import ru.practicum.event.dto.EventShortRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// версия публичного ответа считается по строкам витрины published_event_feed без загрузки сущностей;
+// просмотры округляются до корзины, поэтому ETag слабый: единичные просмотры не сбрасывают кеш клиента
+@Component
+public class PublicEventCachePolicy {
+    private final CacheControl cacheControl;
+    private final long viewsBucketSize;
+
+    public PublicEventCachePolicy(@Value("${ewm.http.events.max-age-seconds:5}") long maxAgeSeconds,
+                                  @Value("${ewm.http.events.stale-while-revalidate-seconds:30}") long staleSeconds,
+                                  @Value("${ewm.http.events.views-bucket-size:10}") long viewsBucketSize) {
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                .staleWhileRevalidate(staleSeconds, TimeUnit.SECONDS)
+                .cachePublic();
+        this.viewsBucketSize = Math.max(1, viewsBucketSize);
+    }
+
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    public ResourceVersion versionOf(List<EventShortRow> rows, Map<Long, Long> views) {
+        StringBuilder state = new StringBuilder();
+        LocalDateTime lastModified = null;
+
+        for (EventShortRow row : rows) {
+            // название категории меняется без изменения версии события
+            state.append(row.getId()).append(':')
+                    .append(row.getVersion()).append(':')
+                    .append(row.getConfirmedRequests()).append(':')
+                    .append(views.getOrDefault(row.getId(), 0L) / viewsBucketSize).append(':')
+                    .append(row.getCategoryName()).append(';');
+
+            if (lastModified == null || row.getUpdatedOn().isAfter(lastModified)) {
+                lastModified = row.getUpdatedOn();
+            }
+        }
+
+        String hash = DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8));
+
+        return new ResourceVersion("W/\"" + hash + "\"", lastModified);
+    }
+}
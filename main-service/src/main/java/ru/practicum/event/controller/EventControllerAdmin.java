@@ -19,7 +19,9 @@ import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventSearchParams;
 import ru.practicum.event.dto.UpdateEventAdminRequest;
 import ru.practicum.event.service.EventAdminService;
+import ru.practicum.pagination.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -44,7 +46,9 @@ public class EventControllerAdmin {
                                         @RequestParam(required = false)
                                         @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                        @RequestParam(defaultValue = "10") @Positive int size) {
+                                        @RequestParam(defaultValue = "10") @Positive int size,
+                                        @RequestParam(required = false) String cursor,
+                                        HttpServletResponse response) {
         log.info("получен запрос на получение полной информации о событиях");
 
         EventSearchParams params = EventSearchParams.builder()
@@ -54,9 +58,14 @@ public class EventControllerAdmin {
                 .rangeStart(rangeStart)
                 .rangeEnd(rangeEnd)
                 .from(from)
-                .size(size).build();
+                .size(size)
+                .cursor(cursor).build();
 
-        return eventAdminService.getEvents(params);
+        List<EventFullDto> events = eventAdminService.getEvents(params);
+        PageCursor.addNextCursorHeader(response, events, size,
+                event -> PageCursor.encodeEventDate(event.getEventDate(), event.getId()));
+
+        return events;
     }
 
     @PatchMapping("/{eventId}")
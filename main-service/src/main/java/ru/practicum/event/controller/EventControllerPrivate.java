@@ -2,7 +2,10 @@ package ru.practicum.event.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,16 +16,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.enums.ExportFormat;
 import ru.practicum.event.dto.EventFullCommentDto;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.dto.NewEventDto;
 import ru.practicum.event.dto.UpdateEventUserRequest;
 import ru.practicum.event.service.EventPrivateService;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.participationrequest.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.participationrequest.dto.EventRequestStatusUpdateResult;
 import ru.practicum.participationrequest.dto.ParticipationRequestDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -41,10 +48,16 @@ public class EventControllerPrivate {
     @ResponseStatus(HttpStatus.OK)
     public List<EventShortDto> getEventsOfUser(@PathVariable long userId,
                                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                               @RequestParam(defaultValue = "10") @Positive int size) {
+                                               @RequestParam(defaultValue = "10") @Positive int size,
+                                               @RequestParam(required = false) String cursor,
+                                               HttpServletResponse response) {
         log.info("получен запрос на получение собственных событий пользователем с id = " + userId);
 
-        return eventPrivateService.getEventsOfUser(userId, from, size);
+        List<EventShortDto> events = eventPrivateService.getEventsOfUser(userId, from, size, cursor);
+        PageCursor.addNextCursorHeader(response, events, size,
+                event -> PageCursor.encodeEventDate(event.getEventDate(), event.getId()));
+
+        return events;
     }
 
     @PostMapping("/{userId}/events")
@@ -75,11 +88,38 @@ public class EventControllerPrivate {
 
     @GetMapping("/{userId}/events/{eventId}/requests")
     @ResponseStatus(HttpStatus.OK)
-    public List<ParticipationRequestDto> getEventParticipationRequests(@PathVariable long userId, @PathVariable long eventId) {
+    public List<ParticipationRequestDto> getEventParticipationRequests(@PathVariable long userId, @PathVariable long eventId,
+                                                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                       @RequestParam(required = false) @Positive Integer size,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       HttpServletResponse response) {
         log.info("получен запрос на получение информации о запросах на участие в событии с id = "
                 + eventId + " пользователя c id = " + userId);
 
-        return eventPrivateService.getEventParticipationRequests(userId, eventId);
+        List<ParticipationRequestDto> requests = eventPrivateService.getEventParticipationRequests(userId, eventId,
+                from, size, cursor);
+        if (size != null) {
+            PageCursor.addNextCursorHeader(response, requests, size, request -> PageCursor.encode(request.getId()));
+        }
+
+        return requests;
+    }
+
+    @GetMapping("/{userId}/events/{eventId}/requests/export")
+    public ResponseEntity<StreamingResponseBody> exportEventParticipationRequests(@PathVariable long userId,
+                                                                                  @PathVariable long eventId,
+                                                                                  @RequestParam(defaultValue = "NDJSON")
+                                                                                  ExportFormat format) {
+        log.info("получен запрос на выгрузку запросов на участие в событии с id = "
+                + eventId + " пользователя c id = " + userId + " в формате " + format);
+
+        StreamingResponseBody body = eventPrivateService.exportEventParticipationRequests(userId, eventId, format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"event-" + eventId + "-requests."
+                        + format.name().toLowerCase() + "\"")
+                .body(body);
     }
 
     @PatchMapping("/{userId}/events/{eventId}/requests")
@@ -3,15 +3,18 @@ package ru.practicum.event.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.cache.ConditionalResponses;
+import ru.practicum.cache.ResourceVersion;
 import ru.practicum.enums.EventSort;
+import ru.practicum.event.PublicEventCachePolicy;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventSearchParams;
 import ru.practicum.event.dto.EventShortDto;
@@ -30,10 +33,10 @@ import java.util.List;
 @Validated
 public class EventControllerPublic {
     private final EventPublicService eventPublicService;
+    private final PublicEventCachePolicy publicEventCachePolicy;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventShortDto> getEvents(@RequestParam(required = false) String text,
+    public ResponseEntity<List<EventShortDto>> getEvents(@RequestParam(required = false) String text,
                                          @RequestParam(required = false) List<Long> categories,
                                          @RequestParam(required = false) Boolean paid,
                                          @RequestParam(required = false)
@@ -44,7 +47,8 @@ public class EventControllerPublic {
                                          @RequestParam(required = false) EventSort sort,
                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
                                          @RequestParam(defaultValue = "10") @Positive int size,
-                                         HttpServletRequest request) {
+                                         HttpServletRequest request,
+                                         WebRequest webRequest) {
         log.info("получен запрос на получение информации о событиях");
 
         EventSearchParams params = EventSearchParams.builder()
@@ -58,14 +62,18 @@ public class EventControllerPublic {
                 .from(from)
                 .size(size).build();
 
-        return eventPublicService.getEvents(params, request);
+        return ConditionalResponses.of(webRequest, eventPublicService.getEvents(params, request),
+                publicEventCachePolicy.getCacheControl());
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public EventFullDto findById(@PathVariable long id, HttpServletRequest request) {
+    public ResponseEntity<EventFullDto> findById(@PathVariable long id, HttpServletRequest request,
+                                                 WebRequest webRequest) {
         log.info("получен запрос на получение информации о событии с  id = " + id);
 
-        return eventPublicService.getEventById(id, request);
+        ResourceVersion version = eventPublicService.getEventVersion(id, request);
+
+        return ConditionalResponses.of(webRequest, version, publicEventCachePolicy.getCacheControl(),
+                () -> eventPublicService.getEventById(id));
     }
 }
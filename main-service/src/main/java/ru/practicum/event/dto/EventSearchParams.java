@@ -18,6 +18,7 @@ public class EventSearchParams {
     private LocalDateTime rangeEnd;
     private int from;
     private int size;
+    private String cursor;
     private String text;
     private Boolean paid;
     private Boolean onlyAvailable;
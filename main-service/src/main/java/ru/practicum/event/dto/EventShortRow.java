@@ -0,0 +1,23 @@
+package ru.practicum.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventShortRow {
+    private final long id;
+    private final String annotation;
+    private final long categoryId;
+    private final String categoryName;
+    private final int confirmedRequests;
+    private final LocalDateTime eventDate;
+    private final long initiatorId;
+    private final String initiatorName;
+    private final Boolean paid;
+    private final String title;
+    private final long version;
+    private final LocalDateTime updatedOn;
+}
@@ -0,0 +1,140 @@
+package ru.practicum.event.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.event.dto.EventSearchParams;
+import ru.practicum.event.dto.EventShortRow;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class PublishedEventFeedRepository {
+    private static final String SELECT_ROWS = "SELECT event_id, annotation, category_id, category_name, " +
+            "confirmed_requests, event_date, initiator_id, initiator_name, paid, title, version, updated_on " +
+            "FROM published_event_feed ";
+    private static final String UPSERT_FEED = "INSERT INTO published_event_feed (event_id, title, annotation, " +
+            "category_id, category_name, initiator_id, initiator_name, event_date, paid, participant_limit, " +
+            "confirmed_requests, search_vector, version, updated_on) " +
+            "SELECT e.id, e.title, e.annotation, c.id, c.name, u.id, u.name, e.event_date, e.paid, " +
+            "e.participant_limit, COALESCE(e.confirmed_requests, 0), " +
+            "event_search_vector(e.title, e.annotation, e.description), e.version, e.updated_on " +
+            "FROM events e JOIN categories c ON c.id = e.category_id JOIN users u ON u.id = e.initiator_id " +
+            "WHERE e.state = 'PUBLISHED' AND e.id IN (:eventIds) " +
+            "ON CONFLICT (event_id) DO UPDATE SET title = EXCLUDED.title, annotation = EXCLUDED.annotation, " +
+            "category_id = EXCLUDED.category_id, category_name = EXCLUDED.category_name, " +
+            "initiator_id = EXCLUDED.initiator_id, initiator_name = EXCLUDED.initiator_name, " +
+            "event_date = EXCLUDED.event_date, paid = EXCLUDED.paid, " +
+            "participant_limit = EXCLUDED.participant_limit, confirmed_requests = EXCLUDED.confirmed_requests, " +
+            "search_vector = EXCLUDED.search_vector, version = EXCLUDED.version, updated_on = EXCLUDED.updated_on";
+    private static final String DELETE_UNPUBLISHED = "DELETE FROM published_event_feed f " +
+            "WHERE f.event_id IN (:eventIds) AND NOT EXISTS " +
+            "(SELECT 1 FROM events e WHERE e.id = f.event_id AND e.state = 'PUBLISHED')";
+    private static final String UPDATE_CATEGORY = "UPDATE published_event_feed f SET category_name = c.name " +
+            "FROM categories c WHERE c.id = f.category_id AND c.id = :categoryId";
+
+    private static final RowMapper<EventShortRow> EVENT_SHORT_ROW_MAPPER = (rs, rowNum) -> new EventShortRow(
+            rs.getLong("event_id"),
+            rs.getString("annotation"),
+            rs.getLong("category_id"),
+            rs.getString("category_name"),
+            rs.getInt("confirmed_requests"),
+            rs.getTimestamp("event_date").toLocalDateTime(),
+            rs.getLong("initiator_id"),
+            rs.getString("initiator_name"),
+            rs.getBoolean("paid"),
+            rs.getString("title"),
+            rs.getLong("version"),
+            rs.getTimestamp("updated_on").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<EventShortRow> findPage(EventSearchParams params) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", params.getFrom())
+                .addValue("size", params.getSize());
+        String sql = SELECT_ROWS + buildFilter(params, parameters) +
+                " ORDER BY event_date, event_id LIMIT :size OFFSET :from";
+
+        return namedParameterJdbcTemplate.query(sql, parameters, EVENT_SHORT_ROW_MAPPER);
+    }
+
+    public List<EventShortRow> findPageByRelevance(EventSearchParams params) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", params.getFrom())
+                .addValue("size", params.getSize());
+        String sql = SELECT_ROWS + buildFilter(params, parameters) +
+                " ORDER BY ts_rank(search_vector, plainto_tsquery('russian', :text)) DESC, event_date, event_id " +
+                "LIMIT :size OFFSET :from";
+
+        return namedParameterJdbcTemplate.query(sql, parameters, EVENT_SHORT_ROW_MAPPER);
+    }
+
+    public List<Long> findIds(EventSearchParams params) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = "SELECT event_id FROM published_event_feed " + buildFilter(params, parameters) +
+                " ORDER BY event_id";
+
+        return namedParameterJdbcTemplate.queryForList(sql, parameters, Long.class);
+    }
+
+    public List<EventShortRow> findAllByIdIn(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return namedParameterJdbcTemplate.query(SELECT_ROWS + "WHERE event_id IN (:eventIds)",
+                new MapSqlParameterSource("eventIds", eventIds), EVENT_SHORT_ROW_MAPPER);
+    }
+
+    public void refresh(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventIds", eventIds);
+        namedParameterJdbcTemplate.update(DELETE_UNPUBLISHED, parameters);
+        namedParameterJdbcTemplate.update(UPSERT_FEED, parameters);
+    }
+
+    public void refreshCategory(long categoryId) {
+        namedParameterJdbcTemplate.update(UPDATE_CATEGORY, new MapSqlParameterSource("categoryId", categoryId));
+    }
+
+    private String buildFilter(EventSearchParams params, MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+
+        conditions.add("event_date BETWEEN :rangeStart AND :rangeEnd");
+        parameters.addValue("rangeStart", Timestamp.valueOf(params.getRangeStart()));
+        parameters.addValue("rangeEnd", Timestamp.valueOf(params.getRangeEnd()));
+
+        if (params.getText() != null) {
+            conditions.add("(LOWER(title) LIKE LOWER('%' || :text || '%') " +
+                    "OR LOWER(annotation) LIKE LOWER('%' || :text || '%') " +
+                    "OR search_vector @@ plainto_tsquery('russian', :text))");
+            parameters.addValue("text", params.getText());
+        }
+
+        if (params.getCategories() != null) {
+            conditions.add("category_id IN (:categories)");
+            parameters.addValue("categories", params.getCategories());
+        }
+
+        if (params.getPaid() != null) {
+            conditions.add("paid = :paid");
+            parameters.addValue("paid", params.getPaid());
+        }
+
+        if (params.getOnlyAvailable() != null) {
+            conditions.add("confirmed_requests < participant_limit");
+        }
+
+        return "WHERE " + String.join(" AND ", conditions);
+    }
+}
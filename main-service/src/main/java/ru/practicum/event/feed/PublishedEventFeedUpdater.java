@@ -0,0 +1,31 @@
+package ru.practicum.event.feed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.category.CategoryChangedEvent;
+import ru.practicum.event.EventChangedEvent;
+
+import javax.persistence.EntityManager;
+
+@Component
+@RequiredArgsConstructor
+public class PublishedEventFeedUpdater {
+    private final PublishedEventFeedRepository publishedEventFeedRepository;
+    private final EntityManager entityManager;
+
+    // витрина обновляется в той же транзакции, что и исходные данные; изменения сущностей нужно сбросить
+    // в базу до запроса, иначе он прочитает старое состояние
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEventChanged(EventChangedEvent event) {
+        entityManager.flush();
+        publishedEventFeedRepository.refresh(event.getEventIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        entityManager.flush();
+        publishedEventFeedRepository.refreshCategory(event.getCategoryId());
+    }
+}
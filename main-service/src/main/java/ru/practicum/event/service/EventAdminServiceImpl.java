@@ -2,8 +2,9 @@ package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.Category;
@@ -11,6 +12,7 @@ import ru.practicum.category.CategoryRepository;
 import ru.practicum.enums.State;
 import ru.practicum.enums.StateAction;
 import ru.practicum.event.Event;
+import ru.practicum.event.EventChangedEvent;
 import ru.practicum.event.EventMapper;
 import ru.practicum.event.EventRepository;
 import ru.practicum.event.dto.EventFullCommentDto;
@@ -29,6 +31,8 @@ import ru.practicum.exception.EventStateException;
 import ru.practicum.exception.UserNotFoundException;
 import ru.practicum.location.Location;
 import ru.practicum.location.LocationRepository;
+import ru.practicum.pagination.FromSizeRequest;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
 
@@ -45,6 +49,7 @@ public class EventAdminServiceImpl implements EventAdminService {
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
     private final EventAdminCommentRepository eventAdminCommentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final LocalDateTime defaultStartRange = LocalDateTime.now().minusYears(100);
     private final LocalDateTime defaultEndRange = LocalDateTime.now().plusYears(100);
@@ -73,7 +78,15 @@ public class EventAdminServiceImpl implements EventAdminService {
             params.setRangeEnd(defaultEndRange);
         }
 
-        Pageable pageable = PageRequest.of((params.getFrom() / params.getSize()), params.getSize());
+        if (params.getCursor() != null) {
+            PageCursor cursor = PageCursor.decodeWithEventDate(params.getCursor());
+
+            return EventMapper.toEventFullDtoList(eventRepository.findAllByParamsAfter(params.getUsers(),
+                    params.getStates(), params.getCategories(), params.getRangeStart(), params.getRangeEnd(),
+                    cursor.getEventDate(), cursor.getId(), FromSizeRequest.of(0, params.getSize())));
+        }
+
+        Pageable pageable = FromSizeRequest.of(params.getFrom(), params.getSize(), Sort.by("eventDate", "id"));
 
         return EventMapper.toEventFullDtoList(eventRepository.findAllByParams(params.getUsers(), params.getStates(),
                 params.getCategories(), params.getRangeStart(), params.getRangeEnd(), pageable));
@@ -124,6 +137,7 @@ public class EventAdminServiceImpl implements EventAdminService {
 
         Event updatedEvent = eventRepository.save(event);
         log.info("Обновлено событие: {}", updatedEvent.toString());
+        eventPublisher.publishEvent(new EventChangedEvent(List.of(eventId)));
 
         EventFullCommentDto eventFullCommentDto = EventMapper.toEventFullCommentDto(updatedEvent);
         eventFullCommentDto.setAdminComments(findAdminCommentsToEvent(eventId));
@@ -1,5 +1,7 @@
 package ru.practicum.event.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.enums.ExportFormat;
 import ru.practicum.event.dto.EventFullCommentDto;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
@@ -12,7 +14,7 @@ import ru.practicum.participationrequest.dto.ParticipationRequestDto;
 import java.util.List;
 
 public interface EventPrivateService {
-    List<EventShortDto> getEventsOfUser(long userId, int from, int size);
+    List<EventShortDto> getEventsOfUser(long userId, int from, int size, String cursor);
 
     EventFullDto addEvent(long userId, NewEventDto newEventDto);
 
@@ -20,7 +22,10 @@ public interface EventPrivateService {
 
     EventFullDto updateUserEvent(long userId, long eventId, UpdateEventUserRequest updateEventUserRequest);
 
-    List<ParticipationRequestDto> getEventParticipationRequests(long userId, long eventId);
+    List<ParticipationRequestDto> getEventParticipationRequests(long userId, long eventId, int from, Integer size,
+                                                                String cursor);
+
+    StreamingResponseBody exportEventParticipationRequests(long userId, long eventId, ExportFormat format);
 
     EventRequestStatusUpdateResult changeRequestStatus(long userId, long eventId,
                                                        EventRequestStatusUpdateRequest eventRequestStatusUpdateRequest);
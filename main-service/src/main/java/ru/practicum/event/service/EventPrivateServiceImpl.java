@@ -2,16 +2,20 @@ package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.category.Category;
 import ru.practicum.category.CategoryRepository;
+import ru.practicum.enums.ExportFormat;
 import ru.practicum.enums.RequestStatus;
 import ru.practicum.enums.State;
 import ru.practicum.enums.StateAction;
 import ru.practicum.event.Event;
+import ru.practicum.event.EventChangedEvent;
 import ru.practicum.event.EventMapper;
 import ru.practicum.event.EventRepository;
 import ru.practicum.event.dto.EventFullCommentDto;
@@ -36,8 +40,10 @@ import ru.practicum.exception.RequestStatusException;
 import ru.practicum.exception.UserNotFoundException;
 import ru.practicum.location.Location;
 import ru.practicum.location.LocationRepository;
-import ru.practicum.participationrequest.ParticipationRequest;
-import ru.practicum.participationrequest.ParticipationRequestMapper;
+import ru.practicum.pagination.FromSizeRequest;
+import ru.practicum.pagination.PageCursor;
+import ru.practicum.participationrequest.ParticipationRequestJdbcRepository;
+import ru.practicum.participationrequest.ParticipationRequestExporter;
 import ru.practicum.participationrequest.ParticipationRequestRepository;
 import ru.practicum.participationrequest.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.participationrequest.dto.EventRequestStatusUpdateResult;
@@ -55,20 +61,32 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 @Slf4j
 public class EventPrivateServiceImpl implements EventPrivateService {
+    private static final int MAX_RESERVE_ATTEMPTS = 5;
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final LocationRepository locationRepository;
     private final ParticipationRequestRepository participationRequestRepository;
+    private final ParticipationRequestJdbcRepository participationRequestJdbcRepository;
+    private final ParticipationRequestExporter participationRequestExporter;
     private final EventAdminCommentRepository eventAdminCommentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<EventShortDto> getEventsOfUser(long userId, int from, int size) {
+    public List<EventShortDto> getEventsOfUser(long userId, int from, int size, String cursor) {
         findUserById(userId);
 
-        Pageable pageable = PageRequest.of((from / size), size);
+        List<Event> events;
 
-        List<Event> events = eventRepository.findByInitiatorId(userId, pageable);
+        if (cursor != null) {
+            PageCursor pageCursor = PageCursor.decodeWithEventDate(cursor);
+            events = eventRepository.findByInitiatorIdAfter(userId, pageCursor.getEventDate(), pageCursor.getId(),
+                    FromSizeRequest.of(0, size));
+        } else {
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.by("eventDate", "id"));
+            events = eventRepository.findByInitiatorId(userId, pageable);
+        }
 
         return EventMapper.toEventShortDtoList(events);
     }
@@ -144,21 +162,29 @@ public class EventPrivateServiceImpl implements EventPrivateService {
 
         Event updatedEvent = eventRepository.save(event);
         log.info("Обновлено событие: {}", updatedEvent.toString());
+        eventPublisher.publishEvent(new EventChangedEvent(List.of(eventId)));
 
         return EventMapper.toEventFullDto(updatedEvent);
     }
 
     @Override
-    public List<ParticipationRequestDto> getEventParticipationRequests(long userId, long eventId) {
-        findUserById(userId);
-        Event event = findEventById(eventId);
-        if (event.getInitiator().getId() != userId) {
-            throw new EventAccessException("Пользователь не инициатор события");
+    public List<ParticipationRequestDto> getEventParticipationRequests(long userId, long eventId, int from,
+                                                                       Integer size, String cursor) {
+        findInitiatedEvent(userId, eventId);
+
+        if (cursor != null) {
+            return participationRequestJdbcRepository.findPageByEventId(eventId, PageCursor.decode(cursor).getId(),
+                    0, size);
         }
 
-        List<ParticipationRequest> participationRequestList = participationRequestRepository.findAllByEvent(event);
+        return participationRequestJdbcRepository.findPageByEventId(eventId, null, from, size);
+    }
 
-        return ParticipationRequestMapper.toParticipationRequestDtoList(participationRequestList);
+    @Override
+    public StreamingResponseBody exportEventParticipationRequests(long userId, long eventId, ExportFormat format) {
+        findInitiatedEvent(userId, eventId);
+
+        return participationRequestExporter.export(eventId, format);
     }
 
     @Override
@@ -169,28 +195,32 @@ public class EventPrivateServiceImpl implements EventPrivateService {
         Event event = findEventById(eventId);
 
         validateModerationAndParticipantLimit(event);
-        validateRequestIds(eventRequestStatusUpdateRequest.getRequestIds(), eventId);
-        List<Long> requestIds = eventRequestStatusUpdateRequest.getRequestIds();
+        List<Long> requestIds = findPendingRequestIds(eventRequestStatusUpdateRequest.getRequestIds(), eventId);
         RequestStatus status = eventRequestStatusUpdateRequest.getStatus();
 
-        List<ParticipationRequest> confirmedRequests;
-        List<ParticipationRequest> rejectedRequests;
+        List<ParticipationRequestDto> confirmedRequests;
+        List<ParticipationRequestDto> rejectedRequests;
 
         if (status == RequestStatus.CONFIRMED) {
-            confirmedRequests = confirmRequests(requestIds, event);
-            rejectedRequests = rejectRemainingRequests(requestIds);
+            int reservedSlots = reserveSlots(event, requestIds.size());
+            confirmedRequests = participationRequestJdbcRepository.updatePendingStatus(eventId,
+                    requestIds.subList(0, reservedSlots), RequestStatus.CONFIRMED);
+            releaseUnusedSlots(event, reservedSlots - confirmedRequests.size());
+            rejectedRequests = participationRequestJdbcRepository.updatePendingStatus(eventId,
+                    requestIds.subList(reservedSlots, requestIds.size()), RequestStatus.REJECTED);
         } else if (status == RequestStatus.REJECTED) {
             confirmedRequests = Collections.emptyList();
-            rejectedRequests = rejectRequests(requestIds);
+            rejectedRequests = participationRequestJdbcRepository.updatePendingStatus(eventId, requestIds,
+                    RequestStatus.REJECTED);
         } else {
             throw new RequestStatusException("Некорректный статус заявки");
         }
 
-        List<ParticipationRequest> savedConfirmedRequests = participationRequestRepository.saveAll(confirmedRequests);
-        List<ParticipationRequest> savedRejectedRequests = participationRequestRepository.saveAll(rejectedRequests);
-        eventRepository.save(event);
+        log.info("Заявки на участие в событии с id {}: подтверждено {}, отклонено {}", eventId,
+                confirmedRequests.size(), rejectedRequests.size());
+        eventPublisher.publishEvent(new EventChangedEvent(List.of(eventId)));
 
-        return ParticipationRequestMapper.toEventRequestStatusUpdateResult(savedConfirmedRequests, savedRejectedRequests);
+        return new EventRequestStatusUpdateResult(confirmedRequests, rejectedRequests);
     }
 
     private Event findEventById(long eventId) {
@@ -198,6 +228,16 @@ public class EventPrivateServiceImpl implements EventPrivateService {
                 .orElseThrow(() -> new EventNotFoundException("Событие не найдено"));
     }
 
+    private Event findInitiatedEvent(long userId, long eventId) {
+        findUserById(userId);
+        Event event = findEventById(eventId);
+        if (event.getInitiator().getId() != userId) {
+            throw new EventAccessException("Пользователь не инициатор события");
+        }
+
+        return event;
+    }
+
     private Category findCategoryById(long catId) {
         return categoryRepository.findById(catId)
                 .orElseThrow(() -> new CategoryNotFoundException("Категория не найдена"));
@@ -257,57 +297,57 @@ public class EventPrivateServiceImpl implements EventPrivateService {
         }
     }
 
-    private void validateRequestIds(List<Long> requestIds, long eventId) {
-        List<ParticipationRequest> requestsList = participationRequestRepository.findAllByIdIn(requestIds);
+    // заявки загружаются один раз: все найденные должны ожидать подтверждения и относиться к событию
+    private List<Long> findPendingRequestIds(List<Long> requestIds, long eventId) {
+        List<Long> distinctIds = requestIds.stream()
+                .distinct()
+                .collect(Collectors.toList());
+        List<ParticipationRequestDto> requestsList = participationRequestJdbcRepository.findAllByIdIn(distinctIds);
 
-        for (ParticipationRequest request : requestsList) {
+        for (ParticipationRequestDto request : requestsList) {
             if (request.getStatus() != RequestStatus.PENDING) {
                 throw new RequestStatusException("Статус заявки с id " + request.getId() + " не является ожидающим");
             }
-            if (request.getEvent().getId() != eventId) {
+            if (request.getEvent() != eventId) {
                 throw new RequestNotBelongToEventException("Заявка с id " + request.getId()
                         + " не относится к событию с id " + eventId);
             }
         }
-    }
-
-    private List<ParticipationRequest> confirmRequests(List<Long> requestIds, Event event) {
-        long availableSlots = event.getParticipantLimit() - event.getConfirmedRequests();
-        long numOfConfirmedRequests = Math.min(requestIds.size(), availableSlots);
 
-        List<ParticipationRequest> requestsList = participationRequestRepository.findAllByIdIn(requestIds);
-
-        List<ParticipationRequest> requestsToConfirm = requestsList.stream()
-                .filter(request -> request.getStatus() != RequestStatus.CONFIRMED)
-                .limit(numOfConfirmedRequests)
-                .peek(request -> request.setStatus(RequestStatus.CONFIRMED))
+        return requestsList.stream()
+                .map(ParticipationRequestDto::getId)
                 .collect(Collectors.toList());
-
-        event.setConfirmedRequests(event.getConfirmedRequests() + requestsToConfirm.size());
-
-        return requestsToConfirm;
     }
 
-    private List<ParticipationRequest> rejectRemainingRequests(List<Long> requestIds) {
-        List<ParticipationRequest> requestsList = participationRequestRepository.findAllByIdIn(requestIds);
+    // места резервируются условным UPDATE; если параллельный запрос успел занять часть мест,
+    // перечитываем счётчик и пробуем зарезервировать оставшееся
+    private int reserveSlots(Event event, int wanted) {
+        int slots = (int) Math.min(wanted, event.getParticipantLimit() - event.getConfirmedRequests());
 
-        List<ParticipationRequest> requestsToReject = requestsList.stream()
-                .filter(request -> !request.getStatus().equals(RequestStatus.CONFIRMED))
-                .peek(request -> request.setStatus(RequestStatus.REJECTED))
-                .collect(Collectors.toList());
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS && slots > 0; attempt++) {
+            if (eventRepository.reserveSlots(event.getId(), slots) > 0) {
+                event.setConfirmedRequests(event.getConfirmedRequests() + slots);
+                return slots;
+            }
 
-        return requestsToReject;
-    }
+            int confirmedRequests = eventRepository.findConfirmedRequestsById(event.getId());
+            event.setConfirmedRequests(confirmedRequests);
+            slots = (int) Math.min(wanted, event.getParticipantLimit() - confirmedRequests);
+        }
 
-    private List<ParticipationRequest> rejectRequests(List<Long> requestIds) {
-        List<ParticipationRequest> requestsList = participationRequestRepository.findAllByIdIn(requestIds);
+        if (wanted > 0) {
+            throw new EventFullParticipantLimit("Достигнут лимит участников события");
+        }
 
-        List<ParticipationRequest> requestsToReject = requestsList.stream()
-                .filter(request -> request.getStatus() != RequestStatus.REJECTED)
-                .peek(request -> request.setStatus(RequestStatus.REJECTED))
-                .collect(Collectors.toList());
+        return 0;
+    }
 
-        return requestsToReject;
+    // заявку могли отменить между загрузкой и обновлением, тогда зарезервированное под неё место возвращается
+    private void releaseUnusedSlots(Event event, int unusedSlots) {
+        if (unusedSlots > 0) {
+            eventRepository.releaseSlots(event.getId(), unusedSlots);
+            event.setConfirmedRequests(event.getConfirmedRequests() - unusedSlots);
+        }
     }
 
     private List<EventAdminCommentDto> findAdminCommentsToEvent(long eventId) {
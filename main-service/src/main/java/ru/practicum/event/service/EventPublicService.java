@@ -1,5 +1,7 @@
 package ru.practicum.event.service;
 
+import ru.practicum.cache.CachedValue;
+import ru.practicum.cache.ResourceVersion;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventSearchParams;
 import ru.practicum.event.dto.EventShortDto;
@@ -8,8 +10,10 @@ import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 public interface EventPublicService {
-    List<EventShortDto> getEvents(EventSearchParams params,
-                                  HttpServletRequest request);
+    CachedValue<List<EventShortDto>> getEvents(EventSearchParams params,
+                                               HttpServletRequest request);
 
-    EventFullDto getEventById(long eventId, HttpServletRequest request);
+    ResourceVersion getEventVersion(long eventId, HttpServletRequest request);
+
+    EventFullDto getEventById(long eventId);
 }
@@ -1,21 +1,23 @@
 package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.category.Category;
+import ru.practicum.cache.CachedValue;
+import ru.practicum.cache.ResourceVersion;
+import ru.practicum.category.CategoryCache;
 import ru.practicum.category.CategoryRepository;
 import ru.practicum.enums.EventSort;
 import ru.practicum.enums.State;
 import ru.practicum.event.Event;
 import ru.practicum.event.EventMapper;
 import ru.practicum.event.EventRepository;
+import ru.practicum.event.PublicEventCachePolicy;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventSearchParams;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventShortRow;
+import ru.practicum.event.feed.PublishedEventFeedRepository;
 import ru.practicum.exception.CategoryDoesntExistException;
 import ru.practicum.exception.EventNotFoundException;
 import ru.practicum.statistics.StatisticsService;
@@ -25,6 +27,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,20 +37,22 @@ import java.util.List;
 public class EventPublicServiceImpl implements EventPublicService {
     private final EventRepository eventRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final StatisticsService statisticsService;
+    private final PublishedEventFeedRepository publishedEventFeedRepository;
+    private final PublicEventCachePolicy publicEventCachePolicy;
 
     private final LocalDateTime defaultStartRange = LocalDateTime.now().minusYears(100);
     private final LocalDateTime defaultEndRange = LocalDateTime.now().plusYears(100);
 
     @Override
-    public List<EventShortDto> getEvents(EventSearchParams params, HttpServletRequest request) {
+    public CachedValue<List<EventShortDto>> getEvents(EventSearchParams params, HttpServletRequest request) {
 
-        Pageable pageable;
-        List<Event> eventList = new ArrayList<>();
+        List<EventShortRow> rows;
 
         if (params.getCategories() != null) {
-            List<Category> categoryList = categoryRepository.findAllByIdIn(params.getCategories());
-            if (categoryList.size() != params.getCategories().size()) {
+            Set<Long> categoryIds = categoryCache.getCategoryIds(categoryRepository::findAllIds);
+            if (!categoryIds.containsAll(params.getCategories())) {
                 throw new CategoryDoesntExistException("Категория/категории не найдены");
             }
         }
@@ -58,27 +65,43 @@ public class EventPublicServiceImpl implements EventPublicService {
             params.setRangeEnd(defaultEndRange);
         }
 
-        if (params.getSort() == EventSort.EVENT_DATE) {
-            pageable = PageRequest.of((params.getFrom() / params.getSize()), params.getSize(), Sort.by("eventDate").ascending());
-            eventList = eventRepository.findPublishedEventsByParams(params.getText(), params.getCategories(), params.getPaid(),
-                    params.getRangeStart(), params.getRangeEnd(), params.getOnlyAvailable(), pageable);
+        if (params.getSort() == EventSort.RELEVANCE && params.getText() != null && !params.getText().isBlank()) {
+            rows = publishedEventFeedRepository.findPageByRelevance(params);
+        } else if (params.getSort() == EventSort.EVENT_DATE || params.getSort() == EventSort.RELEVANCE) {
+            rows = publishedEventFeedRepository.findPage(params);
         } else {
-            List<Long> allEventsIds = eventRepository.findAllPublishedEventsIdsByParams(params.getText(), params.getCategories(),
-                    params.getPaid(), params.getRangeStart(), params.getRangeEnd(), params.getOnlyAvailable());
+            List<Long> allEventsIds = publishedEventFeedRepository.findIds(params);
             List<Long> filteredEventsIds = statisticsService.getPopularFilteredEvents(allEventsIds, params.getFrom(),
                     params.getSize(), defaultStartRange, defaultEndRange);
-            eventList = eventRepository.findAllByIdIn(filteredEventsIds);
-            eventList.sort(Comparator.comparing(Event::getViews, Comparator.reverseOrder()));
+            rows = publishedEventFeedRepository.findAllByIdIn(filteredEventsIds);
+            rows.sort(Comparator.comparingInt(row -> filteredEventsIds.indexOf(row.getId())));
         }
 
-        eventList = statisticsService.findAndSetViewsToEvents(eventList, defaultStartRange, defaultEndRange);
+        Map<Long, Long> views = statisticsService.getViews(rows.stream()
+                .map(EventShortRow::getId)
+                .collect(Collectors.toList()));
         statisticsService.addEndpointHit(request);
 
-        return EventMapper.toEventShortDtoList(eventList);
+        return new CachedValue<>(EventMapper.toEventShortDtoList(rows, views), publicEventCachePolicy.versionOf(rows, views));
     }
 
+    // просмотр засчитывается и тогда, когда клиент получит 304 и тело события не будет собираться
     @Override
-    public EventFullDto getEventById(long eventId, HttpServletRequest request) {
+    public ResourceVersion getEventVersion(long eventId, HttpServletRequest request) {
+        List<EventShortRow> rows = publishedEventFeedRepository.findAllByIdIn(List.of(eventId));
+
+        if (rows.isEmpty()) {
+            throw new EventNotFoundException("Событие не найдено");
+        }
+
+        Map<Long, Long> views = statisticsService.getViews(List.of(eventId));
+        statisticsService.addEndpointHit(request);
+
+        return publicEventCachePolicy.versionOf(rows, views);
+    }
+
+    @Override
+    public EventFullDto getEventById(long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Событие не найдено"));
 
@@ -87,8 +110,7 @@ public class EventPublicServiceImpl implements EventPublicService {
         }
 
         List<Event> eventList = new ArrayList<>();
-        eventList = statisticsService.findAndSetViewsToEvents(List.of(event), defaultStartRange, defaultEndRange);
-        statisticsService.addEndpointHit(request);
+        eventList = statisticsService.findAndSetViewsToEvents(List.of(event));
 
         return EventMapper.toEventFullDto(eventList.get(0));
     }
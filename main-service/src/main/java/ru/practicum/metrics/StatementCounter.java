@@ -0,0 +1,30 @@
+package ru.practicum.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate создаёт экземпляр сам по имени класса из spring.jpa.properties, поэтому счётчик хранится в ThreadLocal;
+// запросы через JdbcTemplate сюда не попадают
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] statements = STATEMENTS.get();
+        STATEMENTS.remove();
+
+        return statements != null ? statements[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+
+        return sql;
+    }
+}
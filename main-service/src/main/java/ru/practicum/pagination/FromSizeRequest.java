@@ -0,0 +1,73 @@
+package ru.practicum.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@EqualsAndHashCode
+@ToString
+public class FromSizeRequest implements Pageable {
+    private final int from;
+    private final int size;
+    private final Sort sort;
+
+    private FromSizeRequest(int from, int size, Sort sort) {
+        this.from = from;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    public static FromSizeRequest of(int from, int size) {
+        return new FromSizeRequest(from, size, Sort.unsorted());
+    }
+
+    public static FromSizeRequest of(int from, int size, Sort sort) {
+        return new FromSizeRequest(from, size, sort);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return from / size;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new FromSizeRequest(from + size, size, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new FromSizeRequest(from - size, size, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new FromSizeRequest(0, size, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new FromSizeRequest(pageNumber * size, size, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return from >= size;
+    }
+}
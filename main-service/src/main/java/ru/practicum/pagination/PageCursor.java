@@ -0,0 +1,76 @@
+package ru.practicum.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.exception.InvalidCursorException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static ru.practicum.MainDateTimeFormatter.mainDateTimeFormatter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime eventDate;
+    private final long id;
+
+    public static String encode(long id) {
+        return toToken(String.valueOf(id));
+    }
+
+    public static String encode(LocalDateTime eventDate, long id) {
+        return toToken(eventDate + SEPARATOR + id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+
+            if (separatorIndex < 0) {
+                return new PageCursor(null, Long.parseLong(value));
+            }
+
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный курсор пагинации: " + token);
+        }
+    }
+
+    public static PageCursor decodeWithEventDate(String token) {
+        PageCursor cursor = decode(token);
+
+        if (cursor.getEventDate() == null) {
+            throw new InvalidCursorException("Курсор пагинации не подходит для списка событий: " + token);
+        }
+
+        return cursor;
+    }
+
+    // неполная страница означает, что данных дальше нет, и заголовок не выставляется
+    public static <T> void addNextCursorHeader(HttpServletResponse response, List<T> page, int size,
+                                               Function<T, String> encoder) {
+        if (!page.isEmpty() && page.size() >= size) {
+            response.setHeader(NEXT_CURSOR_HEADER, encoder.apply(page.get(page.size() - 1)));
+        }
+    }
+
+    public static String encodeEventDate(String eventDate, long id) {
+        return encode(LocalDateTime.parse(eventDate, mainDateTimeFormatter), id);
+    }
+
+    private static String toToken(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
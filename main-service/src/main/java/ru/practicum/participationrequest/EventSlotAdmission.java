@@ -0,0 +1,320 @@
+package ru.practicum.participationrequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.Event;
+import ru.practicum.event.EventChangedEvent;
+import ru.practicum.event.EventRepository;
+import ru.practicum.event.feed.PublishedEventFeedRepository;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Счётчики живут в памяти одного экземпляра сервиса, поэтому движок включается только при одном экземпляре;
+// по умолчанию места резервируются атомарным UPDATE в базе. Источник истины — подтверждённые строки
+// participation_requests: из них счётчик заполняется, а confirmed_requests пересчитывается при записи и на старте
+@Component
+@Slf4j
+public class EventSlotAdmission {
+    private static final String COUNT_CONFIRMED = "SELECT COUNT(*) FROM participation_requests " +
+            "WHERE event_id = ? AND status = 'CONFIRMED'";
+    private static final String SYNC_CONFIRMED = "UPDATE events e SET confirmed_requests = (" +
+            "SELECT COUNT(*) FROM participation_requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED'), " +
+            "updated_on = now() WHERE e.id = ANY(?)";
+    private static final String RECONCILE_CONFIRMED = "UPDATE events e SET confirmed_requests = c.confirmed, " +
+            "updated_on = now() FROM (" +
+            "SELECT ev.id, COUNT(r.id) AS confirmed FROM events ev " +
+            "LEFT JOIN participation_requests r ON r.event_id = ev.id AND r.status = 'CONFIRMED' " +
+            "WHERE ev.participant_limit = 0 OR NOT ev.request_moderation GROUP BY ev.id) AS c " +
+            "WHERE e.id = c.id AND e.confirmed_requests IS DISTINCT FROM c.confirmed RETURNING e.id";
+
+    private final EventRepository eventRepository;
+    private final PublishedEventFeedRepository publishedEventFeedRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long idleTimeoutMs;
+
+    private final Object[] locks;
+    private final Object flushLock = new Object();
+    private final Map<Long, SlotCounter> counters = new ConcurrentHashMap<>();
+    // события, у которых confirmed_requests нужно пересчитать при следующей записи
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Counter admitted;
+    private final Counter rejected;
+
+    public EventSlotAdmission(EventRepository eventRepository,
+                              PublishedEventFeedRepository publishedEventFeedRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${ewm.admission.enabled:false}") boolean enabled,
+                              @Value("${ewm.admission.stripes:64}") int stripes,
+                              @Value("${ewm.admission.idle-timeout-ms:600000}") long idleTimeoutMs) {
+        this.eventRepository = eventRepository;
+        this.publishedEventFeedRepository = publishedEventFeedRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+
+        this.admitted = Counter.builder("ewm.admission.admitted")
+                .description("Заявки, подтверждённые без обращения к строке события")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ewm.admission.rejected")
+                .description("Заявки, отклонённые по лимиту без записи в базу")
+                .register(meterRegistry);
+    }
+
+    // предыдущий запуск мог завершиться до записи пачки: confirmed_requests выравнивается по заявкам
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            List<Long> eventIds = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(RECONCILE_CONFIRMED, Long.class);
+                if (!ids.isEmpty()) {
+                    publishedEventFeedRepository.refresh(ids);
+                }
+                return ids;
+            });
+
+            if (eventIds != null && !eventIds.isEmpty()) {
+                log.warn("Счётчик подтверждённых заявок расходился с заявками и пересчитан для событий {}", eventIds);
+            }
+        }
+    }
+
+    public boolean admit(Event event) {
+        if (!enabled) {
+            return reserveInDatabase(event);
+        }
+
+        long eventId = event.getId();
+        long limit = event.getParticipantLimit();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Подтверждение заявки возможно только внутри транзакции");
+        }
+
+        // начальное значение читается до захвата полосы и до завершения транзакции, а не в обработчике завершения
+        long seed = counters.containsKey(eventId) ? -1 : countConfirmed(eventId);
+        SlotCounter counter;
+
+        synchronized (lockFor(eventId)) {
+            counter = counters.get(eventId);
+            if (counter == null) {
+                counter = new SlotCounter(seed >= 0 ? seed : countConfirmed(eventId));
+                counters.put(eventId, counter);
+            }
+
+            if (limit != 0 && counter.confirmed >= limit) {
+                rejected.increment();
+                return false;
+            }
+
+            counter.confirmed++;
+            counter.inFlight++;
+            counter.lastAccess = System.currentTimeMillis();
+        }
+
+        admitted.increment();
+        // счётчик с незавершёнными заявками не вытесняется и не заменяется, поэтому место вернётся в него же
+        SlotCounter admittedTo = counter;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completeAdmission(eventId, admittedTo, status == STATUS_COMMITTED);
+            }
+        });
+
+        return true;
+    }
+
+    public void release(Event event) {
+        if (!enabled || isModerated(event)) {
+            eventRepository.releaseSlots(event.getId(), 1);
+            eventPublisher.publishEvent(new EventChangedEvent(List.of(event.getId())));
+            return;
+        }
+
+        long eventId = event.getId();
+
+        // место освобождается только после фиксации отмены, иначе его может занять другой участник раньше времени
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    completeRelease(eventId);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.admission.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            flushDirty();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // событие изменилось в обход движка (модерация, смена лимита): счётчик перечитывается из заявок,
+    // к ним добавляются незавершённые заявки этого экземпляра
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEventChanged(EventChangedEvent event) {
+        for (Long eventId : event.getEventIds()) {
+            synchronized (lockFor(eventId)) {
+                SlotCounter counter = counters.get(eventId);
+                if (counter != null) {
+                    counter.confirmed = countConfirmed(eventId) + counter.inFlight;
+                }
+            }
+        }
+    }
+
+    private void flushDirty() {
+        List<Long> eventIds = drainDirty();
+
+        if (eventIds.isEmpty()) {
+            evictIdle();
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(SYNC_CONFIRMED, new AbstractSqlTypeValue() {
+                    @Override
+                    protected Object createTypeValue(Connection connection, int sqlType, String typeName)
+                            throws SQLException {
+                        return connection.createArrayOf("bigint", eventIds.toArray());
+                    }
+                });
+                publishedEventFeedRepository.refresh(eventIds);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать счётчики подтверждённых заявок для событий {}: {}",
+                    eventIds, e.getMessage());
+            dirty.addAll(eventIds);
+        }
+    }
+
+    private boolean reserveInDatabase(Event event) {
+        if (eventRepository.reserveSlots(event.getId(), 1) == 0) {
+            return false;
+        }
+
+        eventPublisher.publishEvent(new EventChangedEvent(List.of(event.getId())));
+
+        return true;
+    }
+
+    // после завершения транзакции в базу не обращаемся: соединение уже отвязано от потока
+    private void completeAdmission(long eventId, SlotCounter counter, boolean committed) {
+        synchronized (lockFor(eventId)) {
+            counter.inFlight--;
+            if (committed) {
+                dirty.add(eventId);
+            } else {
+                counter.confirmed--;
+            }
+        }
+    }
+
+    private void completeRelease(long eventId) {
+        synchronized (lockFor(eventId)) {
+            SlotCounter counter = counters.get(eventId);
+            if (counter != null) {
+                counter.confirmed--;
+            }
+            dirty.add(eventId);
+        }
+    }
+
+    private List<Long> drainDirty() {
+        List<Long> eventIds = new ArrayList<>();
+
+        for (Long eventId : dirty) {
+            if (dirty.remove(eventId)) {
+                eventIds.add(eventId);
+            }
+        }
+
+        return eventIds;
+    }
+
+    private void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTimeoutMs;
+
+        for (Long eventId : counters.keySet()) {
+            synchronized (lockFor(eventId)) {
+                SlotCounter counter = counters.get(eventId);
+                if (counter != null && counter.inFlight == 0 && counter.lastAccess < threshold
+                        && !dirty.contains(eventId)) {
+                    counters.remove(eventId);
+                }
+            }
+        }
+    }
+
+    private long countConfirmed(long eventId) {
+        Long confirmed = jdbcTemplate.queryForObject(COUNT_CONFIRMED, Long.class, eventId);
+
+        return confirmed != null ? confirmed : 0;
+    }
+
+    private Object lockFor(long eventId) {
+        return locks[Math.floorMod(Long.hashCode(eventId), locks.length)];
+    }
+
+    private boolean isModerated(Event event) {
+        return event.getParticipantLimit() != 0 && event.getRequestModeration();
+    }
+
+    private static class SlotCounter {
+        // подтверждённые заявки в базе плюс незавершённые заявки этого экземпляра
+        private long confirmed;
+        private int inFlight;
+        private long lastAccess = System.currentTimeMillis();
+
+        private SlotCounter(long confirmed) {
+            this.confirmed = confirmed;
+        }
+    }
+}
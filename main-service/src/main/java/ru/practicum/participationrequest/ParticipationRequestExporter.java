@@ -0,0 +1,81 @@
+package ru.practicum.participationrequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.enums.ExportFormat;
+import ru.practicum.participationrequest.dto.ParticipationRequestDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Component
+@Slf4j
+public class ParticipationRequestExporter {
+    private static final String CSV_HEADER = "id,created,event,requester,status";
+
+    private final ParticipationRequestJdbcRepository participationRequestJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public ParticipationRequestExporter(ParticipationRequestJdbcRepository participationRequestJdbcRepository,
+                                        ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${ewm.export.fetch-size:500}") int fetchSize) {
+        this.participationRequestJdbcRepository = participationRequestJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    // тело ответа пишется в отдельном потоке после выхода из контроллера, строки не накапливаются в памяти
+    public StreamingResponseBody export(long eventId, ExportFormat format) {
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            int[] exported = {0};
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        participationRequestJdbcRepository.streamByEventId(eventId, fetchSize, request -> {
+                            writeRow(writer, request, format);
+                            exported[0]++;
+                        }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+            log.info("Выгружено заявок на участие в событии с id {}: {}", eventId, exported[0]);
+        };
+    }
+
+    private void writeRow(Writer writer, ParticipationRequestDto request, ExportFormat format) {
+        try {
+            if (format == ExportFormat.CSV) {
+                // все поля числовые, дата без запятых или статус, поэтому экранирование не требуется
+                writer.write(request.getId() + "," + request.getCreated() + "," + request.getEvent() + ","
+                        + request.getRequester() + "," + request.getStatus());
+            } else {
+                writer.write(objectMapper.writeValueAsString(request));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
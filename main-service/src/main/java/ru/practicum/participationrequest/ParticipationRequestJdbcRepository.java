@@ -0,0 +1,118 @@
+package ru.practicum.participationrequest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.participationrequest.dto.ParticipationRequestDto;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static ru.practicum.MainDateTimeFormatter.mainDateTimeFormatter;
+
+@Repository
+@RequiredArgsConstructor
+public class ParticipationRequestJdbcRepository {
+    // драйвер PostgreSQL ограничивает число параметров запроса 32767, поэтому длинные списки id делятся на части
+    private static final int CHUNK_SIZE = 5000;
+
+    private static final String COLUMNS = "id, created_date, event_id, requester_id, status";
+    private static final String SELECT_BY_IDS = "SELECT " + COLUMNS + " FROM participation_requests " +
+            "WHERE id IN (:ids) ORDER BY id";
+    private static final String SELECT_BY_EVENT = "SELECT " + COLUMNS + " FROM participation_requests " +
+            "WHERE event_id = ? ORDER BY id";
+    private static final String UPDATE_PENDING_STATUS = "UPDATE participation_requests SET status = :status " +
+            "WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING' RETURNING " + COLUMNS;
+
+    private static final RowMapper<ParticipationRequestDto> PARTICIPATION_REQUEST_DTO_MAPPER = (rs, rowNum) ->
+            ParticipationRequestDto.builder()
+                    .id(rs.getLong("id"))
+                    .created(rs.getTimestamp("created_date").toLocalDateTime().format(mainDateTimeFormatter))
+                    .event(rs.getLong("event_id"))
+                    .requester(rs.getLong("requester_id"))
+                    .status(RequestStatus.valueOf(rs.getString("status")))
+                    .build();
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<ParticipationRequestDto> findAllByIdIn(List<Long> ids) {
+        List<ParticipationRequestDto> requests = new ArrayList<>(ids.size());
+
+        for (List<Long> chunk : chunks(ids)) {
+            requests.addAll(namedParameterJdbcTemplate.query(SELECT_BY_IDS,
+                    new MapSqlParameterSource("ids", chunk), PARTICIPATION_REQUEST_DTO_MAPPER));
+        }
+
+        return requests;
+    }
+
+    public List<ParticipationRequestDto> findPageByEventId(long eventId, Long afterId, int from, Integer size) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("from", from);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM participation_requests " +
+                "WHERE event_id = :eventId");
+
+        if (afterId != null) {
+            sql.append(" AND id > :afterId");
+            parameters.addValue("afterId", afterId);
+        }
+
+        sql.append(" ORDER BY id");
+
+        if (size != null) {
+            sql.append(" LIMIT :size");
+            parameters.addValue("size", size);
+        }
+
+        sql.append(" OFFSET :from");
+
+        return namedParameterJdbcTemplate.query(sql.toString(), parameters, PARTICIPATION_REQUEST_DTO_MAPPER);
+    }
+
+    // строки читаются курсором по fetchSize штук, поэтому вызывать нужно внутри транзакции:
+    // в режиме autocommit драйвер PostgreSQL загружает весь результат в память
+    public void streamByEventId(long eventId, int fetchSize, Consumer<ParticipationRequestDto> consumer) {
+        namedParameterJdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_EVENT);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, eventId);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(PARTICIPATION_REQUEST_DTO_MAPPER.mapRow(rs, 0)));
+    }
+
+    // меняет статус только у ожидающих заявок события; заявки, которые успели отменить параллельно, не возвращаются
+    public List<ParticipationRequestDto> updatePendingStatus(long eventId, List<Long> ids, RequestStatus status) {
+        List<ParticipationRequestDto> updated = new ArrayList<>(ids.size());
+
+        for (List<Long> chunk : chunks(ids)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("ids", chunk)
+                    .addValue("eventId", eventId)
+                    .addValue("status", status.name());
+            List<ParticipationRequestDto> rows = namedParameterJdbcTemplate.query(UPDATE_PENDING_STATUS, parameters,
+                    PARTICIPATION_REQUEST_DTO_MAPPER);
+            rows.sort(Comparator.comparingLong(ParticipationRequestDto::getId));
+            updated.addAll(rows);
+        }
+
+        return updated;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size())));
+        }
+
+        return chunks;
+    }
+}
@@ -1,6 +1,5 @@
 package ru.practicum.participationrequest;
 
-import ru.practicum.participationrequest.dto.EventRequestStatusUpdateResult;
 import ru.practicum.participationrequest.dto.ParticipationRequestDto;
 
 import java.util.List;
@@ -27,16 +26,4 @@ public class ParticipationRequestMapper {
                 .map(ParticipationRequestMapper::toParticipationRequestDto)
                 .collect(Collectors.toList());
     }
-
-    public static EventRequestStatusUpdateResult toEventRequestStatusUpdateResult(
-            List<ParticipationRequest> confirmedRequests, List<ParticipationRequest> rejectedRequests) {
-
-        List<ParticipationRequestDto> confirmedRequestsDtoList = confirmedRequests.stream()
-                .map(ParticipationRequestMapper::toParticipationRequestDto).collect(Collectors.toList());
-
-        List<ParticipationRequestDto> rejectedRequestsDtoList = rejectedRequests.stream()
-                .map(ParticipationRequestMapper::toParticipationRequestDto).collect(Collectors.toList());
-
-        return new EventRequestStatusUpdateResult(confirmedRequestsDtoList, rejectedRequestsDtoList);
-    }
 }
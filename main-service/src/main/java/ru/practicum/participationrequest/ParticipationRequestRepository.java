@@ -1,7 +1,6 @@
 package ru.practicum.participationrequest;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.event.Event;
 
 import java.util.List;
 
@@ -9,9 +8,4 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
     List<ParticipationRequest> findAllByRequesterId(long userId);
 
     ParticipationRequest findByRequesterIdAndEventId(long userId, long eventId);
-
-
-    List<ParticipationRequest> findAllByIdIn(List<Long> ids);
-
-    List<ParticipationRequest> findAllByEvent(Event event);
 }
@@ -28,6 +28,7 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final ParticipationRequestRepository requestRepository;
+    private final EventSlotAdmission slotAdmission;
 
     @Override
     public List<ParticipationRequestDto> getRequestsOfUser(long userId) {
@@ -62,8 +63,10 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
 
         if (event.getParticipantLimit() == 0 || !event.getRequestModeration()) {
             requestStatus = RequestStatus.CONFIRMED;
+            if (!slotAdmission.admit(event)) {
+                throw new RequestFullOccupiedException("у события достигнут лимит запросов на участие");
+            }
             event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            eventRepository.save(event);
         } else {
             requestStatus = RequestStatus.PENDING;
         }
@@ -86,8 +89,8 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
 
         if (request.getStatus().equals(RequestStatus.CONFIRMED)) {
             Event event = request.getEvent();
+            slotAdmission.release(event);
             event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-            eventRepository.save(event);
         }
 
         request.setStatus(RequestStatus.CANCELED);
@@ -0,0 +1,129 @@
+package ru.practicum.statistics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHitBatchResultDto;
+import ru.practicum.dto.EndpointHitDto;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class EndpointHitQueue {
+    private final StatsClient statsClient;
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int batchSize;
+    private final HitOverflowPolicy overflowPolicy;
+    private final long offerTimeoutMs;
+
+    private final Counter droppedHits;
+    private final Counter failedHits;
+    private final Counter sentHits;
+    private final Timer flushTimer;
+
+    public EndpointHitQueue(StatsClient statsClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${stats.hits.queue-capacity:10000}") int capacity,
+                            @Value("${stats.hits.batch-size:500}") int batchSize,
+                            @Value("${stats.hits.overflow-policy:DROP_OLDEST}") HitOverflowPolicy overflowPolicy,
+                            @Value("${stats.hits.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.statsClient = statsClient;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        Gauge.builder("stats.hits.queue.size", queue, BlockingQueue::size)
+                .description("Количество посещений, ожидающих отправки")
+                .register(meterRegistry);
+        this.droppedHits = Counter.builder("stats.hits.dropped")
+                .description("Посещения, отброшенные из-за переполнения очереди")
+                .register(meterRegistry);
+        this.failedHits = Counter.builder("stats.hits.failed")
+                .description("Посещения, которые не удалось отправить в сервис статистики")
+                .register(meterRegistry);
+        this.sentHits = Counter.builder("stats.hits.sent")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("stats.hits.flush")
+                .description("Время отправки одной пачки посещений")
+                .register(meterRegistry);
+    }
+
+    public void offer(EndpointHitDto endpointHitDto) {
+        if (queue.offer(endpointHitDto)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                queue.poll();
+                droppedHits.increment();
+                if (!queue.offer(endpointHitDto)) {
+                    droppedHits.increment();
+                }
+                break;
+            case BLOCK:
+                offerWithTimeout(endpointHitDto);
+                break;
+            default:
+                droppedHits.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.hits.flush-interval-ms:1000}")
+    public void flush() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flushTimer.record(() -> send(batch));
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void offerWithTimeout(EndpointHitDto endpointHitDto) {
+        try {
+            if (!queue.offer(endpointHitDto, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                droppedHits.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedHits.increment();
+        }
+    }
+
+    private void send(List<EndpointHitDto> batch) {
+        boolean sent;
+
+        try {
+            ResponseEntity<EndpointHitBatchResultDto> response = statsClient.addAll(batch);
+            sent = response.getStatusCode().is2xxSuccessful();
+        } catch (RuntimeException e) {
+            sent = false;
+        }
+
+        if (sent) {
+            sentHits.increment(batch.size());
+        } else {
+            failedHits.increment(batch.size());
+            log.warn("Не удалось отправить в сервис статистики пачку из {} посещений", batch.size());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.statistics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.exception.StatsUnavailableException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.MainDateTimeFormatter.mainDateTimeFormatter;
+
+@Component
+@Slf4j
+public class EventViewsCache {
+    private final StatsClient statsClient;
+    private final LoadingCache<Long, Long> cache;
+    // последние полученные значения живут дольше основного кеша и отдаются, пока сервис статистики недоступен
+    private final Cache<Long, Long> lastKnownViews;
+    // события, которые читали с прошлого обновления: устаревшие из них перезагружаются одним пакетом
+    private final Set<Long> readSinceRefresh = ConcurrentHashMap.newKeySet();
+    private final long refreshSeconds;
+    private final int refreshBatchSize;
+
+    private final String rangeStart = LocalDateTime.now().minusYears(100).format(mainDateTimeFormatter);
+    private final String rangeEnd = LocalDateTime.now().plusYears(100).format(mainDateTimeFormatter);
+
+    public EventViewsCache(StatsClient statsClient,
+                           @Value("${stats.views-cache.max-size:10000}") long maxSize,
+                           @Value("${stats.views-cache.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${stats.views-cache.refresh-seconds:20}") long refreshSeconds,
+                           @Value("${stats.views-cache.refresh-batch-size:500}") int refreshBatchSize,
+                           @Value("${stats.views-cache.last-known-ttl-minutes:1440}") long lastKnownTtlMinutes) {
+        this.statsClient = statsClient;
+        this.refreshSeconds = refreshSeconds;
+        this.refreshBatchSize = refreshBatchSize;
+        this.lastKnownViews = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(lastKnownTtlMinutes))
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Long load(Long eventId) {
+                        return loadViews(List.of(eventId)).get(eventId);
+                    }
+
+                    @Override
+                    public Map<Long, Long> loadAll(Iterable<? extends Long> eventsIds) {
+                        List<Long> ids = new ArrayList<>();
+                        eventsIds.forEach(ids::add);
+
+                        return loadViews(ids);
+                    }
+                });
+    }
+
+    public Map<Long, Long> getViews(Collection<Long> eventsIds) {
+        readSinceRefresh.addAll(eventsIds);
+
+        try {
+            return cache.getAll(eventsIds);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось получить просмотры событий из сервиса статистики: {}", e.getMessage());
+
+            Map<Long, Long> views = new HashMap<>(cache.getAllPresent(eventsIds));
+            for (Long eventId : eventsIds) {
+                if (!views.containsKey(eventId)) {
+                    Long lastKnown = lastKnownViews.getIfPresent(eventId);
+                    views.put(eventId, lastKnown != null ? lastKnown : 0L);
+                }
+            }
+
+            return views;
+        }
+    }
+
+    // refreshAfterWrite в Caffeine перезагружает ключи по одному, поэтому горячие записи обновляются здесь пакетами
+    @Scheduled(fixedDelayString = "PT${stats.views-cache.refresh-seconds:20}S")
+    public void refreshHotEntries() {
+        Policy.Expiration<Long, Long> expiration = cache.policy().expireAfterWrite().orElseThrow();
+        List<Long> stale = new ArrayList<>();
+
+        for (Iterator<Long> iterator = readSinceRefresh.iterator(); iterator.hasNext(); ) {
+            Long eventId = iterator.next();
+            iterator.remove();
+
+            if (expiration.ageOf(eventId, TimeUnit.SECONDS).orElse(0) >= refreshSeconds) {
+                stale.add(eventId);
+            }
+        }
+
+        for (int from = 0; from < stale.size(); from += refreshBatchSize) {
+            List<Long> batch = stale.subList(from, Math.min(from + refreshBatchSize, stale.size()));
+
+            try {
+                cache.putAll(loadViews(batch));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обновить просмотры событий, записи доживут до истечения срока: {}",
+                        e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private Map<Long, Long> loadViews(List<Long> eventsIds) {
+        ResponseEntity<ViewStatsDto[]> response = statsClient.getStats(rangeStart, rangeEnd,
+                ViewStatsParser.toUris(eventsIds), true);
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new StatsUnavailableException("Сервис статистики вернул статус " + response.getStatusCode());
+        }
+
+        Map<Long, Long> views = ViewStatsParser.toViews(eventsIds, response.getBody());
+        lastKnownViews.putAll(views);
+
+        return views;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.statistics;
+
+public enum HitOverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    BLOCK
+}
@@ -4,11 +4,14 @@ import ru.practicum.event.Event;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface StatisticsService {
-    List<Event> findAndSetViewsToEvents(List<Event> eventList, LocalDateTime rangeStart,
-                                        LocalDateTime rangeEnd);
+    List<Event> findAndSetViewsToEvents(List<Event> eventList);
+
+    Map<Long, Long> getViews(Collection<Long> eventsIds);
 
     List<Long> getPopularFilteredEvents(List<Long> eventsIds, int from, int size, LocalDateTime rangeStart,
                                         LocalDateTime rangeEnd);
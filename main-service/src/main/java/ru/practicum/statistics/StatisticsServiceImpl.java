@@ -1,6 +1,7 @@
 package ru.practicum.statistics;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -8,125 +9,82 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.client.StatsClient;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.dto.ViewStatsTopRequestDto;
 import ru.practicum.event.Event;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Slf4j
 public class StatisticsServiceImpl implements StatisticsService {
     private final StatsClient statsClient;
+    private final EndpointHitQueue endpointHitQueue;
+    private final EventViewsCache eventViewsCache;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Override
-    public List<Event> findAndSetViewsToEvents(List<Event> eventList, LocalDateTime rangeStart,
-                                               LocalDateTime rangeEnd) {
-        String start = rangeStart.format(formatter);
-        String end = rangeEnd.format(formatter);
-        Boolean unique = true;
-        List<String> uris = new ArrayList<>();
+    public List<Event> findAndSetViewsToEvents(List<Event> eventList) {
+        Map<Long, Long> views = getViews(eventList.stream().map(Event::getId).collect(Collectors.toList()));
 
         for (Event event : eventList) {
-            uris.add("/events/" + event.getId());
+            event.setViews(views.getOrDefault(event.getId(), 0L));
         }
 
-        ResponseEntity<Object> response = statsClient.getStats(start, end, uris, unique);
-
-        if (response.getStatusCode() == HttpStatus.OK) {
-            List<ViewStatsDto> viewStatsDtoList = new ArrayList<>();
-            List<HashMap<String, Object>> responseList = (List<HashMap<String, Object>>) response.getBody();
-
-            for (HashMap<String, Object> responseItem : responseList) {
-                ViewStatsDto viewStatsDto = new ViewStatsDto();
-                viewStatsDto.setUri((String) responseItem.get("uri"));
-                viewStatsDto.setHits(((Integer) responseItem.get("hits")).longValue());
-                viewStatsDtoList.add(viewStatsDto);
-            }
-
-            Map<Long, Long> hitsMap = new HashMap<>();
-
-            for (ViewStatsDto viewStatsDto : viewStatsDtoList) {
-                String uri = viewStatsDto.getUri();
-                Long hits = viewStatsDto.getHits();
-                long eventId = extractEventIdFromUri(uri);
-                hitsMap.put(eventId, hits);
-            }
+        return eventList;
+    }
 
-            for (Event event : eventList) {
-                Long eventId = event.getId();
-                if (hitsMap.containsKey(eventId)) {
-                    Long hits = hitsMap.get(eventId);
-                    event.setViews(hits);
-                } else {
-                    event.setViews(0);
-                }
-            }
+    @Override
+    public Map<Long, Long> getViews(Collection<Long> eventsIds) {
+        if (eventsIds.isEmpty()) {
+            return new HashMap<>();
         }
 
-        return eventList;
+        return eventViewsCache.getViews(eventsIds);
     }
 
     @Override
     public List<Long> getPopularFilteredEvents(List<Long> eventsIds, int from, int size, LocalDateTime rangeStart,
                                                LocalDateTime rangeEnd) {
-        String start = rangeStart.format(formatter);
-        String end = rangeEnd.format(formatter);
-        Boolean unique = true;
-        List<String> uris = new ArrayList<>();
-        Set<Long> filteredEventsIds = new HashSet<>();
-        int index = 0;
-
-        for (Long eventId : eventsIds) {
-            uris.add("/events/" + eventId);
+        if (eventsIds.isEmpty() || from >= eventsIds.size()) {
+            return new ArrayList<>();
         }
 
-        ResponseEntity<Object> response = statsClient.getStats(start, end, uris, unique);
-
-        if (response.getStatusCode() == HttpStatus.OK) {
-            List<ViewStatsDto> viewStatsDtoList = new ArrayList<>();
-            List<HashMap<String, Object>> responseList = (List<HashMap<String, Object>>) response.getBody();
+        ViewStatsTopRequestDto viewStatsTopRequestDto = ViewStatsTopRequestDto.builder()
+                .start(rangeStart.format(formatter))
+                .end(rangeEnd.format(formatter))
+                .uris(ViewStatsParser.toUris(eventsIds))
+                .unique(true)
+                .from(from)
+                .size(size)
+                .build();
 
-            for (HashMap<String, Object> responseItem : responseList) {
-                ViewStatsDto viewStatsDto = new ViewStatsDto();
-                viewStatsDto.setUri((String) responseItem.get("uri"));
-                viewStatsDto.setHits(((Integer) responseItem.get("hits")).longValue());
-                viewStatsDtoList.add(viewStatsDto);
-            }
-
-            if (viewStatsDtoList != null) {
-                viewStatsDtoList.sort(Comparator.comparingLong(ViewStatsDto::getHits));
-                List<ViewStatsDto> filteredViewStatsDtoList = viewStatsDtoList.stream()
-                        .skip(from)
-                        .limit(size)
-                        .collect(Collectors.toList());
+        try {
+            ResponseEntity<ViewStatsDto[]> response = statsClient.getTopStats(viewStatsTopRequestDto);
 
-                for (ViewStatsDto viewStatsDto : filteredViewStatsDtoList) {
-                    filteredEventsIds.add(extractEventIdFromUri(viewStatsDto.getUri()));
-                }
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                return ViewStatsParser.toEventIds(response.getBody());
             }
-        }
 
-        while (filteredEventsIds.size() < size && index < eventsIds.size()) {
-            filteredEventsIds.add(eventsIds.get(index));
-            index++;
+            log.warn("Сервис статистики вернул статус {} при сортировке событий по просмотрам",
+                    response.getStatusCode());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отсортировать события по просмотрам: {}", e.getMessage());
         }
 
-        return new ArrayList<Long>(filteredEventsIds);
+        return new ArrayList<>(eventsIds.subList(from, Math.min(from + size, eventsIds.size())));
     }
 
     @Override
-    @Transactional
     public void addEndpointHit(HttpServletRequest request) {
         String app = "ewm-main-service";
         String uri = request.getRequestURI();
@@ -135,11 +93,7 @@ public class StatisticsServiceImpl implements StatisticsService {
         EndpointHitDto endpointHitDto = EndpointHitDto.builder().app(app).uri(uri).ip(ip)
                 .timestamp(LocalDateTime.now().format(formatter)).build();
 
-        statsClient.add(endpointHitDto);
+        endpointHitQueue.offer(endpointHitDto);
     }
 
-    private long extractEventIdFromUri(String uri) {
-        String eventIdString = uri.substring(uri.lastIndexOf("/") + 1);
-        return Long.parseLong(eventIdString);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.practicum.statistics;
+
+import ru.practicum.dto.ViewStatsDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// разбор ответов сервиса статистики: uri вида /events/{id} превращается в id события
+public class ViewStatsParser {
+    public static Map<Long, Long> toViews(Collection<Long> eventsIds, ViewStatsDto[] viewStats) {
+        Map<Long, Long> views = new HashMap<>();
+        for (Long eventId : eventsIds) {
+            views.put(eventId, 0L);
+        }
+
+        for (ViewStatsDto viewStatsDto : viewStats) {
+            views.merge(extractEventId(viewStatsDto.getUri()), viewStatsDto.getHits(), Long::sum);
+        }
+
+        return views;
+    }
+
+    public static List<Long> toEventIds(ViewStatsDto[] viewStats) {
+        List<Long> eventIds = new ArrayList<>(viewStats.length);
+
+        for (ViewStatsDto viewStatsDto : viewStats) {
+            eventIds.add(extractEventId(viewStatsDto.getUri()));
+        }
+
+        return eventIds;
+    }
+
+    public static List<String> toUris(Collection<Long> eventsIds) {
+        List<String> uris = new ArrayList<>(eventsIds.size());
+
+        for (Long eventId : eventsIds) {
+            uris.add("/events/" + eventId);
+        }
+
+        return uris;
+    }
+
+    public static long extractEventId(String uri) {
+        return Long.parseLong(uri, uri.lastIndexOf('/') + 1, uri.length(), 10);
+    }
+}
@@ -7,7 +7,7 @@ import java.util.List;
 
 public interface UserAdminService {
 
-    List<UserDto> getUsers(List<Long> usersIds, int size, int from);
+    List<UserDto> getUsers(List<Long> usersIds, int from, int size, String cursor);
 
     UserDto saveNewUser(NewUserRequest userDto);
 
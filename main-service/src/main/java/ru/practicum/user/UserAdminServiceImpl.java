@@ -2,11 +2,13 @@ package ru.practicum.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.exception.UserNotFoundException;
+import ru.practicum.pagination.FromSizeRequest;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 
@@ -20,12 +22,15 @@ public class UserAdminServiceImpl implements UserAdminService {
     private final UserRepository userRepository;
 
     @Override
-    public List<UserDto> getUsers(List<Long> usersIds, int from, int size) {
+    public List<UserDto> getUsers(List<Long> usersIds, int from, int size, String cursor) {
         List<User> users;
         if (usersIds != null) {
             users = userRepository.findAllByIdIn(usersIds);
+        } else if (cursor != null) {
+            users = userRepository.findAllByIdGreaterThan(PageCursor.decode(cursor).getId(),
+                    FromSizeRequest.of(0, size, Sort.by("id")));
         } else {
-            Pageable pageable = PageRequest.of((from / size), size);
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.by("id"));
             users = userRepository.findAll(pageable).getContent();
         }
         return UserMapper.toUserDtoList(users);
@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -33,10 +35,17 @@ public class UserControllerAdmin {
     @ResponseStatus(HttpStatus.OK)
     public List<UserDto> getUsers(@RequestParam(required = false) List<Long> ids,
                                   @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                  @RequestParam(defaultValue = "10") @Positive int size) {
+                                  @RequestParam(defaultValue = "10") @Positive int size,
+                                  @RequestParam(required = false) String cursor,
+                                  HttpServletResponse response) {
         log.info("получен запрос на получение пользователей");
 
-        return userAdminService.getUsers(ids, from, size);
+        List<UserDto> users = userAdminService.getUsers(ids, from, size, cursor);
+        if (ids == null) {
+            PageCursor.addNextCursorHeader(response, users, size, user -> PageCursor.encode(user.getId()));
+        }
+
+        return users;
     }
 
     @PostMapping
@@ -1,9 +1,12 @@
 package ru.practicum.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllByIdIn(List<Long> usersIds);
+
+    List<User> findAllByIdGreaterThan(long id, Pageable pageable);
 }
\ No newline at end of file
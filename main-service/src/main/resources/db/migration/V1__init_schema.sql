@@ -1,12 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS categories CASCADE;
-DROP TABLE IF EXISTS locations CASCADE;
-DROP TABLE IF EXISTS compilations CASCADE;
-DROP TABLE IF EXISTS events CASCADE;
-DROP TABLE IF EXISTS participation_requests CASCADE;
-DROP TABLE IF EXISTS compilation_events_relation CASCADE;
-DROP TABLE IF EXISTS event_admin_comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -95,4 +86,4 @@ CREATE TABLE IF NOT EXISTS event_admin_comments
     event_id       BIGINT,
     CONSTRAINT pk_event_admin_comment PRIMARY KEY (id),
     CONSTRAINT id_event_admin_comments_fk FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
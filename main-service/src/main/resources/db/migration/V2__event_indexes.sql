@@ -0,0 +1,20 @@
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date);
+
+CREATE INDEX IF NOT EXISTS idx_events_initiator_event_date ON events (initiator_id, event_date);
+
+CREATE INDEX IF NOT EXISTS idx_events_category ON events (category_id);
+
+CREATE INDEX IF NOT EXISTS idx_events_location ON events (location_id);
+
+CREATE INDEX IF NOT EXISTS idx_participation_requests_event_status ON participation_requests (event_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_participation_requests_requester_event ON participation_requests (requester_id, event_id);
+
+CREATE INDEX IF NOT EXISTS idx_compilation_events_relation_compilation_event
+    ON compilation_events_relation (compilation_id, event_id);
+
+CREATE INDEX IF NOT EXISTS idx_compilation_events_relation_event ON compilation_events_relation (event_id);
+
+CREATE INDEX IF NOT EXISTS idx_event_admin_comments_event ON event_admin_comments (event_id);
+
+CREATE INDEX IF NOT EXISTS idx_compilations_pinned ON compilations (pinned);
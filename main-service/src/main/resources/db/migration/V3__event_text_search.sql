@@ -0,0 +1,13 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- функция строит поисковый вектор для витрины published_event_feed, индексы поиска создаются вместе с ней в V4
+CREATE OR REPLACE FUNCTION event_search_vector(title TEXT, annotation TEXT, description TEXT)
+    RETURNS TSVECTOR
+    LANGUAGE SQL
+    IMMUTABLE
+AS
+$$
+SELECT setweight(to_tsvector('russian', COALESCE(title, '')), 'A') ||
+       setweight(to_tsvector('russian', COALESCE(annotation, '')), 'B') ||
+       setweight(to_tsvector('russian', COALESCE(description, '')), 'C')
+$$;
@@ -0,0 +1,52 @@
+CREATE TABLE IF NOT EXISTS published_event_feed
+(
+    event_id           BIGINT                      NOT NULL,
+    title              VARCHAR(120)                NOT NULL,
+    annotation         VARCHAR(2000)               NOT NULL,
+    category_id        BIGINT                      NOT NULL,
+    category_name      VARCHAR(50)                 NOT NULL,
+    initiator_id       BIGINT                      NOT NULL,
+    initiator_name     VARCHAR(250)                NOT NULL,
+    event_date         TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    paid               BOOLEAN                     NOT NULL,
+    participant_limit  BIGINT                      NOT NULL,
+    confirmed_requests BIGINT                      NOT NULL,
+    search_vector      TSVECTOR                    NOT NULL,
+    CONSTRAINT pk_published_event_feed PRIMARY KEY (event_id),
+    CONSTRAINT id_event_feed_fk FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_published_event_feed_event_date ON published_event_feed (event_date, event_id);
+
+CREATE INDEX IF NOT EXISTS idx_published_event_feed_category_event_date
+    ON published_event_feed (category_id, event_date);
+
+CREATE INDEX IF NOT EXISTS idx_published_event_feed_title_trgm
+    ON published_event_feed USING GIN (LOWER(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_published_event_feed_annotation_trgm
+    ON published_event_feed USING GIN (LOWER(annotation) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_published_event_feed_search_vector
+    ON published_event_feed USING GIN (search_vector);
+
+INSERT INTO published_event_feed (event_id, title, annotation, category_id, category_name, initiator_id,
+                                  initiator_name, event_date, paid, participant_limit, confirmed_requests,
+                                  search_vector)
+SELECT e.id,
+       e.title,
+       e.annotation,
+       c.id,
+       c.name,
+       u.id,
+       u.name,
+       e.event_date,
+       e.paid,
+       e.participant_limit,
+       COALESCE(e.confirmed_requests, 0),
+       event_search_vector(e.title, e.annotation, e.description)
+FROM events e
+         JOIN categories c ON c.id = e.category_id
+         JOIN users u ON u.id = e.initiator_id
+WHERE e.state = 'PUBLISHED'
+ON CONFLICT (event_id) DO NOTHING;
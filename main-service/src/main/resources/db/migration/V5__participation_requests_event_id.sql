@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_participation_requests_event_id ON participation_requests (event_id, id);
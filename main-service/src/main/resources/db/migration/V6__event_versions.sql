@@ -0,0 +1,13 @@
+ALTER TABLE events
+    ADD COLUMN IF NOT EXISTS version    BIGINT                      NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_on TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE published_event_feed
+    ADD COLUMN IF NOT EXISTS version    BIGINT                      NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_on TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now();
+
+UPDATE published_event_feed f
+SET version    = e.version,
+    updated_on = e.updated_on
+FROM events e
+WHERE e.id = f.event_id;
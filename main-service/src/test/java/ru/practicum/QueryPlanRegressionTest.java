@@ -0,0 +1,261 @@
+package ru.practicum;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.StatementCapture.CapturedStatement;
+import ru.practicum.compilation.CompilationRepository;
+import ru.practicum.enums.State;
+import ru.practicum.event.Event;
+import ru.practicum.event.EventRepository;
+import ru.practicum.event.dto.EventSearchParams;
+import ru.practicum.event.feed.PublishedEventFeedRepository;
+import ru.practicum.pagination.FromSizeRequest;
+import ru.practicum.participationrequest.EventSlotAdmission;
+import ru.practicum.participationrequest.ParticipationRequestJdbcRepository;
+import ru.practicum.participationrequest.ParticipationRequestRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// планы горячих запросов на схеме из миграций: explain выполняет ровно тот SQL с теми параметрами, что отправил
+// в базу вызванный метод репозитория; если индекс пропадёт или перестанет подходить запросу, тест покажет
+// последовательное чтение таблицы
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "ewm.admission.enabled=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+    private static final String DATABASE = "query_plans";
+    private static final String SEED = "INSERT INTO users (name, email) " +
+            "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, 2000) i; " +
+            "INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, 50) i; " +
+            "INSERT INTO locations (lat, lon) SELECT i, i FROM generate_series(1, 2000) i; " +
+            "INSERT INTO events (annotation, category_id, confirmed_requests, created_date, description, " +
+            "event_date, initiator_id, location_id, paid, participant_limit, published_date, request_moderation, " +
+            "state, title) " +
+            "SELECT 'Описание события ' || i, 1 + i % 50, 0, now(), 'Подробное описание события ' || i, " +
+            "now() + i * interval '10 minutes', 1 + i % 2000, 1 + i % 2000, i % 2 = 0, i % 100, now(), i % 3 = 0, " +
+            "CASE i % 10 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CANCELED' ELSE 'PUBLISHED' END, " +
+            "CASE WHEN i % 1000 = 0 THEN 'Jazz concert ' || i ELSE 'Событие ' || i END " +
+            "FROM generate_series(1, 50000) i; " +
+            "INSERT INTO published_event_feed (event_id, title, annotation, category_id, category_name, " +
+            "initiator_id, initiator_name, event_date, paid, participant_limit, confirmed_requests, search_vector, " +
+            "version, updated_on) " +
+            "SELECT e.id, e.title, e.annotation, c.id, c.name, u.id, u.name, e.event_date, e.paid, " +
+            "e.participant_limit, e.confirmed_requests, event_search_vector(e.title, e.annotation, e.description), " +
+            "e.version, e.updated_on " +
+            "FROM events e JOIN categories c ON c.id = e.category_id JOIN users u ON u.id = e.initiator_id " +
+            "WHERE e.state = 'PUBLISHED'; " +
+            "INSERT INTO participation_requests (created_date, event_id, requester_id, status) " +
+            "SELECT now(), 1 + i % 50000, 1 + (i + i / 50000) % 2000, " +
+            "CASE i % 3 WHEN 0 THEN 'CONFIRMED' WHEN 1 THEN 'PENDING' ELSE 'REJECTED' END " +
+            "FROM generate_series(1, 200000) i; " +
+            "INSERT INTO compilations (pinned, title) " +
+            "SELECT i % 5 = 0, 'Подборка ' || i FROM generate_series(1, 5000) i; " +
+            "INSERT INTO compilation_events_relation (compilation_id, event_id) " +
+            "SELECT 1 + i % 5000, 1 + i * 7 % 50000 FROM generate_series(1, 50000) i; " +
+            "ANALYZE";
+
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PublishedEventFeedRepository publishedEventFeedRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ParticipationRequestJdbcRepository participationRequestJdbcRepository;
+
+    @Autowired
+    private ParticipationRequestRepository participationRequestRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private EventSlotAdmission slotAdmission;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.create(DATABASE);
+        registry.add("spring.datasource.url", () -> TestDatabase.jdbcUrl(DATABASE));
+    }
+
+    @BeforeAll
+    void setUp() {
+        assertThat(flyway.info().current().getVersion()).isGreaterThanOrEqualTo(MigrationVersion.fromVersion("6"));
+
+        jdbcTemplate.execute(SEED);
+    }
+
+    @Test
+    void publicFeedPageReadsEventDateIndex() {
+        String plan = explain(() -> publishedEventFeedRepository.findPage(feedParams().build()));
+
+        assertUsesIndex(plan, "idx_published_event_feed_event_date");
+        assertNoSeqScan(plan, "published_event_feed");
+    }
+
+    // при небольшом LIMIT планировщик может идти и по индексу даты с фильтром, важно лишь,
+    // чтобы витрина не читалась целиком
+    @Test
+    void publicFeedCategoryFilterReadsFeedIndex() {
+        String plan = explain(() -> publishedEventFeedRepository.findPage(feedParams()
+                .categories(List.of(3L, 7L))
+                .build()));
+
+        assertUsesIndex(plan, "idx_published_event_feed_(category_)?event_date");
+        assertNoSeqScan(plan, "published_event_feed");
+    }
+
+    // слово латиницей, потому что в локали C встроенного PostgreSQL pg_trgm не выделяет триграммы из кириллицы
+    @Test
+    void publicFeedTextSearchReadsTextIndexes() {
+        String plan = explain(() -> publishedEventFeedRepository.findPageByRelevance(feedParams()
+                .text("jazz")
+                .build()));
+
+        assertUsesIndex(plan, "idx_published_event_feed_title_trgm");
+        assertUsesIndex(plan, "idx_published_event_feed_search_vector");
+        assertNoSeqScan(plan, "published_event_feed");
+    }
+
+    // поиск администратора по состояниям с той же сортировкой, что в EventAdminServiceImpl
+    @Test
+    void adminSearchByStateReadsStateIndex() {
+        String plan = explain(() -> eventRepository.findAllByParams(null, List.of(State.PENDING), null,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(7),
+                FromSizeRequest.of(0, 10, Sort.by("eventDate", "id"))));
+
+        assertUsesIndex(plan, "idx_events_state_event_date");
+        assertNoSeqScan(plan, "events");
+    }
+
+    @Test
+    void initiatorEventsReadInitiatorIndex() {
+        String plan = explain(() -> eventRepository.findByInitiatorIdAfter(42L, LocalDateTime.now(), 0L,
+                FromSizeRequest.of(0, 10)));
+
+        assertUsesIndex(plan, "idx_events_initiator_event_date");
+        assertNoSeqScan(plan, "events");
+    }
+
+    @Test
+    void eventRequestsPageReadsEventIndex() {
+        String plan = explain(() -> participationRequestJdbcRepository.findPageByEventId(42L, 0L, 0, 100));
+
+        assertUsesIndex(plan, "idx_participation_requests_event_id");
+        assertNoSeqScan(plan, "participation_requests");
+    }
+
+    // счётчик подтверждённых заявок читается при первой заявке на событие; транзакция откатывается,
+    // поэтому место в счётчике возвращается
+    @Test
+    void confirmedRequestsCountReadsEventStatusIndex() {
+        String plan = transactionTemplate.execute(status -> {
+            Event event = eventRepository.findById(42L).orElseThrow();
+            status.setRollbackOnly();
+
+            return explain(() -> slotAdmission.admit(event));
+        });
+
+        assertUsesIndex(plan, "idx_participation_requests_event_status");
+        assertNoSeqScan(plan, "participation_requests");
+    }
+
+    @Test
+    void requesterLookupsReadRequesterIndex() {
+        String byRequester = explain(() -> participationRequestRepository.findAllByRequesterId(42L));
+        String byRequesterAndEvent = explain(() ->
+                participationRequestRepository.findByRequesterIdAndEventId(42L, 2042L));
+
+        assertUsesIndex(byRequester, "idx_participation_requests_requester_event");
+        assertNoSeqScan(byRequester, "participation_requests");
+        assertUsesIndex(byRequesterAndEvent, "idx_participation_requests_requester_event");
+        assertNoSeqScan(byRequesterAndEvent, "participation_requests");
+    }
+
+    @Test
+    void compilationEventsReadCompilationIndex() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            ids.add(id);
+        }
+
+        String plan = explain(() -> compilationRepository.findAllWithEventsByIdIn(ids));
+
+        assertUsesIndex(plan, "idx_compilation_events_relation_compilation_event");
+        assertNoSeqScan(plan, "compilation_events_relation");
+    }
+
+    // вызов должен отправить в базу ровно один запрос, он и выполняется под EXPLAIN
+    private String explain(Runnable repositoryCall) {
+        List<CapturedStatement> statements = StatementCapture.capture(repositoryCall);
+        assertThat(statements).extracting(CapturedStatement::getSql).hasSize(1);
+
+        return jdbcTemplate.query(connection -> statements.get(0).prepare(connection, "EXPLAIN "),
+                (ResultSetExtractor<String>) rs -> {
+                    List<String> lines = new ArrayList<>();
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                    return String.join("\n", lines);
+                });
+    }
+
+    private EventSearchParams.EventSearchParamsBuilder feedParams() {
+        return EventSearchParams.builder()
+                .rangeStart(LocalDateTime.now())
+                .rangeEnd(LocalDateTime.now().plusDays(365))
+                .from(0)
+                .size(10);
+    }
+
+    private void assertUsesIndex(String plan, String index) {
+        assertThat(plan).as(plan).containsPattern("(Index Scan|Index Only Scan) using " + index + " |" +
+                "Bitmap Index Scan on " + index + "\\b");
+    }
+
+    private void assertNoSeqScan(String plan, String table) {
+        assertThat(plan).as(plan).doesNotContainPattern("Seq Scan on " + table + "\\b");
+    }
+
+    // репозитории получают обёртку над пулом соединений, которая запоминает выполненные запросы
+    @TestConfiguration
+    static class StatementCaptureConfiguration {
+        @Bean
+        static BeanPostProcessor statementCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? StatementCapture.wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+}
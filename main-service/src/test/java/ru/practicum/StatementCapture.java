@@ -0,0 +1,131 @@
+package ru.practicum;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// запоминает запросы, выполненные в текущем потоке внутри capture, вместе с привязанными параметрами:
+// и сгенерированные Hibernate, и собранные репозиториями на JdbcTemplate; их можно выполнить повторно под EXPLAIN
+public final class StatementCapture {
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+
+    private StatementCapture() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return capturing(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return capturing(super.getConnection(username, password));
+            }
+        };
+    }
+
+    public static List<CapturedStatement> capture(Runnable action) {
+        List<CapturedStatement> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+
+        return captured;
+    }
+
+    private static Connection capturing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+
+                    if (method.getName().equals("prepareStatement")) {
+                        return capturing((PreparedStatement) result, (String) args[0]);
+                    }
+
+                    return result;
+                });
+    }
+
+    private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+
+                    // у методов привязки параметра первый аргумент — номер параметра
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bindings.add(new Binding(method, args));
+                    } else if (name.equals("clearParameters")) {
+                        bindings.clear();
+                    } else if (name.equals("executeQuery") && (args == null || args.length == 0)) {
+                        List<CapturedStatement> captured = CAPTURED.get();
+                        if (captured != null) {
+                            captured.add(new CapturedStatement(sql, new ArrayList<>(bindings)));
+                        }
+                    }
+
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static class CapturedStatement {
+        private final String sql;
+        private final List<Binding> bindings;
+
+        private CapturedStatement(String sql, List<Binding> bindings) {
+            this.sql = sql;
+            this.bindings = bindings;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+
+            for (Binding binding : bindings) {
+                try {
+                    binding.method.invoke(statement, binding.args);
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Не удалось привязать параметр запроса " + sql, e);
+                }
+            }
+
+            return statement;
+        }
+    }
+
+    private static class Binding {
+        private final Method method;
+        private final Object[] args;
+
+        private Binding(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+    }
+}
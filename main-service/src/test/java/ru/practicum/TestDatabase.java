@@ -0,0 +1,61 @@
+package ru.practicum;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// один экземпляр PostgreSQL из бинарников embedded-postgres на все тесты, у каждого теста своя база
+public final class TestDatabase {
+    public static final String USER = "postgres";
+
+    private static EmbeddedPostgres postgres;
+
+    private TestDatabase() {
+    }
+
+    public static DataSource create(String database) {
+        EmbeddedPostgres server = server();
+
+        try (Connection connection = server.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + database);
+            statement.execute("CREATE DATABASE " + database);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось создать базу " + database, e);
+        }
+
+        return server.getDatabase(USER, database);
+    }
+
+    public static String jdbcUrl(String database) {
+        return server().getJdbcUrl(USER, database);
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder()
+                        .setServerConfig("fsync", "off")
+                        .setServerConfig("synchronous_commit", "off")
+                        .start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось запустить PostgreSQL", e);
+            }
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignore) {
+                    // процесс PostgreSQL завершится вместе с JVM
+                }
+            }));
+        }
+
+        return postgres;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void sameValueKeepsETagAfterInvalidationAndRestart() {
+        NearCache<String, List<String>> cache = new NearCache<>(10, 60, objectMapper);
+        String eTag = cache.get("key", () -> List.of("a", "b")).getVersion().getETag();
+
+        cache.invalidateAll();
+
+        assertThat(cache.get("key", () -> List.of("a", "b")).getVersion().getETag()).isEqualTo(eTag);
+        assertThat(new NearCache<String, List<String>>(10, 60, objectMapper)
+                .get("key", () -> List.of("a", "b")).getVersion().getETag()).isEqualTo(eTag);
+    }
+
+    @Test
+    void changedValueChangesETag() {
+        NearCache<String, List<String>> cache = new NearCache<>(10, 60, objectMapper);
+        String eTag = cache.get("key", () -> List.of("a", "b")).getVersion().getETag();
+
+        cache.invalidateAll();
+
+        assertThat(cache.get("key", () -> List.of("a", "c")).getVersion().getETag())
+                .isNotEqualTo(eTag)
+                .matches("\"[0-9a-f]{32}\"");
+    }
+
+    @Test
+    void cacheWithoutObjectMapperDoesNotComputeETag() {
+        NearCache<String, List<String>> cache = new NearCache<>(10, 60);
+
+        assertThat(cache.get("key", () -> List.of("a")).getVersion()).isNull();
+    }
+
+    @Test
+    void invalidateIfDropsOnlyMatchingValues() {
+        NearCache<String, List<String>> cache = new NearCache<>(10, 60, objectMapper);
+        cache.get("first", () -> List.of("a", "b"));
+        cache.get("second", () -> List.of("c"));
+
+        cache.invalidateIf(value -> value.contains("b"));
+
+        assertThat(cache.get("first", () -> List.of("reloaded")).getValue()).containsExactly("reloaded");
+        assertThat(cache.get("second", () -> List.of("reloaded")).getValue()).containsExactly("c");
+    }
+}
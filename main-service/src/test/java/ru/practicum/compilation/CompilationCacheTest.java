@@ -0,0 +1,43 @@
+package ru.practicum.compilation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.event.EventChangedEvent;
+import ru.practicum.event.dto.EventShortDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompilationCacheTest {
+    private final CompilationCache compilationCache = new CompilationCache(10, 60, new ObjectMapper());
+
+    @Test
+    void eventChangeInvalidatesOnlyCompilationsWithThatEvent() {
+        compilationCache.getCompilation(1, () -> compilation(1, 10L, 11L));
+        compilationCache.getCompilation(2, () -> compilation(2, 20L));
+        compilationCache.getPage(null, 0, 10, null, () -> List.of(compilation(1, 10L, 11L)));
+        compilationCache.getPage(true, 0, 10, null, () -> List.of(compilation(2, 20L)));
+
+        compilationCache.onEventChanged(new EventChangedEvent(List.of(11L)));
+
+        assertThat(compilationCache.getCompilation(1, () -> compilation(1)).getValue().getEvents()).isEmpty();
+        assertThat(compilationCache.getCompilation(2, () -> compilation(2)).getValue().getEvents()).hasSize(1);
+        assertThat(compilationCache.getPage(null, 0, 10, null, List::of).getValue()).isEmpty();
+        assertThat(compilationCache.getPage(true, 0, 10, null, List::of).getValue()).hasSize(1);
+    }
+
+    private CompilationDto compilation(long id, Long... eventIds) {
+        return CompilationDto.builder()
+                .id(id)
+                .pinned(false)
+                .title("Подборка " + id)
+                .events(Arrays.stream(eventIds)
+                        .map(eventId -> EventShortDto.builder().id(eventId).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.compilation;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.TestDatabase;
+import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.compilation.service.CompilationPublicService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// страница подборок загружается постоянным числом запросов, сколько бы подборок и событий в ней ни было
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CompilationPageStatementsTest {
+    private static final String DATABASE = "compilation_statements";
+    private static final String SEED = "INSERT INTO users (name, email) " +
+            "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, 100) i; " +
+            "INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, 20) i; " +
+            "INSERT INTO locations (lat, lon) SELECT i, i FROM generate_series(1, 100) i; " +
+            "INSERT INTO events (annotation, category_id, confirmed_requests, created_date, description, " +
+            "event_date, initiator_id, location_id, paid, participant_limit, published_date, request_moderation, " +
+            "state, title) " +
+            "SELECT 'annotation ' || i, 1 + i % 20, 0, now(), 'description ' || i, now() + interval '1 day', " +
+            "1 + i % 100, 1 + i % 100, false, 0, now(), false, 'PUBLISHED', 'title ' || i " +
+            "FROM generate_series(1, 500) i; " +
+            "INSERT INTO compilations (pinned, title) SELECT i % 2 = 0, 'compilation ' || i " +
+            "FROM generate_series(1, 60) i; " +
+            "INSERT INTO compilation_events_relation (compilation_id, event_id) " +
+            "SELECT c.id, 1 + (c.id * 7 + j) % 500 FROM compilations c, generate_series(1, 5) j";
+
+    @Autowired
+    private CompilationPublicService compilationPublicService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.create(DATABASE);
+        registry.add("spring.datasource.url", () -> TestDatabase.jdbcUrl(DATABASE));
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM compilations", Long.class) == 0) {
+            jdbcTemplate.execute(SEED);
+        }
+    }
+
+    @Test
+    void compilationPageIsLoadedWithConstantNumberOfStatements() {
+        long onePage = countStatements(null, 1);
+        long tenPage = countStatements(null, 10);
+        long fiftyPage = countStatements(null, 50);
+
+        assertThat(onePage).isEqualTo(2);
+        assertThat(tenPage).isEqualTo(onePage);
+        assertThat(fiftyPage).isEqualTo(onePage);
+    }
+
+    @Test
+    void pinnedCompilationPageIsLoadedWithConstantNumberOfStatements() {
+        long onePage = countStatements(true, 1);
+        long thirtyPage = countStatements(true, 30);
+
+        assertThat(onePage).isEqualTo(2);
+        assertThat(thirtyPage).isEqualTo(onePage);
+    }
+
+    private long countStatements(Boolean pinned, int size) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CompilationDto> page = compilationPublicService.findAll(pinned, 0, size, null).getValue();
+
+        assertThat(page).hasSize(size);
+        assertThat(page).allSatisfy(compilation -> assertThat(compilation.getEvents()).hasSize(5));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
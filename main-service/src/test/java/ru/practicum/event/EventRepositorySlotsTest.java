@@ -0,0 +1,112 @@
+package ru.practicum.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.TestDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// условный UPDATE не должен пропускать лишних участников при одновременных запросах
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class EventRepositorySlotsTest {
+    private static final String DATABASE = "event_slots";
+    private static final int THREADS = 64;
+    private static final int LIMIT = 25;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.create(DATABASE);
+        registry.add("spring.datasource.url", () -> TestDatabase.jdbcUrl(DATABASE));
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedLimit() throws Exception {
+        long eventId = createEvent(LIMIT);
+
+        int reserved = runConcurrently(() -> transactionTemplate.execute(status ->
+                eventRepository.reserveSlots(eventId, 1)));
+
+        assertThat(reserved).isEqualTo(LIMIT);
+        assertThat(confirmedRequests(eventId)).isEqualTo(LIMIT);
+    }
+
+    @Test
+    void concurrentReleasesNeverGoBelowZero() throws Exception {
+        long eventId = createEvent(LIMIT);
+        transactionTemplate.execute(status -> eventRepository.reserveSlots(eventId, LIMIT));
+
+        int released = runConcurrently(() -> transactionTemplate.execute(status ->
+                eventRepository.releaseSlots(eventId, 1)));
+
+        assertThat(released).isEqualTo(LIMIT);
+        assertThat(confirmedRequests(eventId)).isZero();
+    }
+
+    private int runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get();
+            }
+
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long createEvent(long participantLimit) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('initiator', 'initiator@mail.ru') " +
+                "ON CONFLICT DO NOTHING");
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('category') ON CONFLICT DO NOTHING");
+
+        return jdbcTemplate.queryForObject("WITH l AS (INSERT INTO locations (lat, lon) " +
+                        "VALUES (random(), random()) RETURNING id) " +
+                        "INSERT INTO events (annotation, category_id, confirmed_requests, created_date, description, " +
+                        "event_date, initiator_id, location_id, paid, participant_limit, published_date, " +
+                        "request_moderation, state, title) " +
+                        "SELECT 'annotation', (SELECT id FROM categories WHERE name = 'category'), 0, now(), " +
+                        "'description', now() + interval '1 day', (SELECT id FROM users WHERE name = 'initiator'), " +
+                        "l.id, false, ?, now(), false, 'PUBLISHED', 'title' FROM l RETURNING id",
+                Long.class, participantLimit);
+    }
+
+    private long confirmedRequests(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.participationrequest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.TestDatabase;
+import ru.practicum.exception.RequestFullOccupiedException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// места выдаёт EventSlotAdmission в памяти, счётчик события записывается пакетно
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "ewm.admission.enabled=true")
+class AdmissionSignUpConcurrencyTest extends SignUpConcurrencyTest {
+    private static final String DATABASE = "sign_up_admission";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.create(DATABASE);
+        registry.add("spring.datasource.url", () -> TestDatabase.jdbcUrl(DATABASE));
+    }
+
+    @Test
+    void rolledBackSignUpReturnsSlot() {
+        long eventId = createEvent(1);
+        List<Long> requesterIds = createUsers(3);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            participationRequestService.addParticipationRequest(requesterIds.get(0), eventId);
+            status.setRollbackOnly();
+        });
+
+        participationRequestService.addParticipationRequest(requesterIds.get(1), eventId);
+        assertThatThrownBy(() -> participationRequestService.addParticipationRequest(requesterIds.get(2), eventId))
+                .isInstanceOf(RequestFullOccupiedException.class);
+
+        slotAdmission.flush();
+
+        assertThat(countConfirmed(eventId)).isEqualTo(1);
+        assertThat(confirmedRequests(eventId)).isEqualTo(1);
+    }
+
+    // заявки записаны, а пачка счётчиков — нет: так выглядит база после падения экземпляра до flush
+    @Test
+    void startupReconcilesCounterLostBeforeFlush() {
+        long eventId = createEvent(5);
+        List<Long> requesterIds = createUsers(6);
+
+        for (long requesterId : requesterIds.subList(0, 3)) {
+            jdbcTemplate.update("INSERT INTO participation_requests (created_date, event_id, requester_id, status) " +
+                    "VALUES (now(), ?, ?, 'CONFIRMED')", eventId, requesterId);
+        }
+
+        slotAdmission.onStartup();
+        assertThat(confirmedRequests(eventId)).isEqualTo(3);
+
+        participationRequestService.addParticipationRequest(requesterIds.get(3), eventId);
+        participationRequestService.addParticipationRequest(requesterIds.get(4), eventId);
+        assertThatThrownBy(() -> participationRequestService.addParticipationRequest(requesterIds.get(5), eventId))
+                .isInstanceOf(RequestFullOccupiedException.class);
+
+        slotAdmission.flush();
+
+        assertThat(countConfirmed(eventId)).isEqualTo(5);
+        assertThat(confirmedRequests(eventId)).isEqualTo(5);
+    }
+}
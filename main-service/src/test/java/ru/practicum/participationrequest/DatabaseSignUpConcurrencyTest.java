@@ -0,0 +1,18 @@
+package ru.practicum.participationrequest;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.TestDatabase;
+
+// места занимаются условным UPDATE в базе (ewm.admission.enabled=false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "ewm.admission.enabled=false")
+class DatabaseSignUpConcurrencyTest extends SignUpConcurrencyTest {
+    private static final String DATABASE = "sign_up_database";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.create(DATABASE);
+        registry.add("spring.datasource.url", () -> TestDatabase.jdbcUrl(DATABASE));
+    }
+}
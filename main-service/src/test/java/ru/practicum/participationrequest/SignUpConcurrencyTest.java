@@ -0,0 +1,103 @@
+package ru.practicum.participationrequest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.exception.RequestFullOccupiedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// одновременная запись на событие без модерации: мест занимается ровно столько, сколько разрешает лимит,
+// и счётчик события совпадает с числом подтверждённых заявок; наследники задают путь подтверждения
+abstract class SignUpConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int LIMIT = 25;
+
+    @Autowired
+    protected ParticipationRequestService participationRequestService;
+
+    @Autowired
+    protected EventSlotAdmission slotAdmission;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSignUpsConfirmExactlyLimit() throws Exception {
+        long eventId = createEvent(LIMIT);
+        List<Long> requesterIds = createUsers(THREADS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (long requesterId : requesterIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        participationRequestService.addParticipationRequest(requesterId, eventId);
+                        return true;
+                    } catch (RequestFullOccupiedException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            int confirmed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    confirmed++;
+                }
+            }
+
+            assertThat(confirmed).isEqualTo(LIMIT);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        slotAdmission.flush();
+
+        assertThat(countConfirmed(eventId)).isEqualTo(LIMIT);
+        assertThat(confirmedRequests(eventId)).isEqualTo(LIMIT);
+    }
+
+    protected long createEvent(long participantLimit) {
+        long initiatorId = createUsers(1).get(0);
+        long categoryId = jdbcTemplate.queryForObject("INSERT INTO categories (name) " +
+                "VALUES ('category' || nextval('categories_id_seq')) RETURNING id", Long.class);
+
+        return jdbcTemplate.queryForObject("WITH l AS (INSERT INTO locations (lat, lon) " +
+                        "VALUES (random(), random()) RETURNING id) " +
+                        "INSERT INTO events (annotation, category_id, confirmed_requests, created_date, description, " +
+                        "event_date, initiator_id, location_id, paid, participant_limit, published_date, " +
+                        "request_moderation, state, title) " +
+                        "SELECT 'annotation', ?, 0, now(), 'description', now() + interval '1 day', ?, l.id, false, " +
+                        "?, now(), false, 'PUBLISHED', 'title' FROM l RETURNING id",
+                Long.class, categoryId, initiatorId, participantLimit);
+    }
+
+    protected List<Long> createUsers(int count) {
+        return jdbcTemplate.queryForList("INSERT INTO users (name, email) " +
+                "SELECT 'user' || n, 'user' || n || '@mail.ru' " +
+                "FROM (SELECT nextval('users_id_seq') n FROM generate_series(1, ?)) s RETURNING id", Long.class, count);
+    }
+
+    protected long countConfirmed(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participation_requests " +
+                "WHERE event_id = ? AND status = 'CONFIRMED'", Long.class, eventId);
+    }
+
+    protected long confirmedRequests(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
@@ -1,51 +1,64 @@
 package ru.practicum.client;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 public class BaseClient {
     protected final RestTemplate rest;
+    private final StatsCallGuard callGuard;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, StatsCallGuard callGuard) {
         this.rest = rest;
+        this.callGuard = callGuard;
     }
 
-    protected ResponseEntity<Object> get(String path) {
-        return get(path, null);
+    protected <R> ResponseEntity<R> get(String path, Class<R> responseType) {
+        return get(path, null, responseType);
     }
 
-    protected ResponseEntity<Object> get(String path, Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, parameters, null);
+    protected <R> ResponseEntity<R> get(String path, Map<String, Object> parameters, Class<R> responseType) {
+        return makeAndSendRequest(HttpMethod.GET, path, parameters, null, responseType);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
-        return post(path, null, body);
+    protected <T, R> ResponseEntity<R> post(String path, T body, Class<R> responseType) {
+        return post(path, null, body, responseType);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, parameters, body);
+    protected <T, R> ResponseEntity<R> post(String path, Map<String, Object> parameters, T body, Class<R> responseType) {
+        return makeAndSendRequest(HttpMethod.POST, path, parameters, body, responseType);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Map<String, Object> parameters, T body) {
+    private <T, R> ResponseEntity<R> makeAndSendRequest(HttpMethod method, String path, Map<String, Object> parameters,
+                                                        T body, Class<R> responseType) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders());
 
-        ResponseEntity<Object> statsResponse;
+        ResponseEntity<R> statsResponse;
         try {
-            if (parameters != null) {
-                statsResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                statsResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            statsResponse = callGuard.call(() -> parameters != null
+                    ? rest.exchange(path, method, requestEntity, responseType, parameters)
+                    : rest.exchange(path, method, requestEntity, responseType));
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // вызывающий код получает тот же ответ, что и при недоступном сервисе, и переходит на запасной вариант
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RestClientException e) {
+            log.warn("Сервис статистики не ответил на {} {}: {}", method, path, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
         return prepareStatsResponse(statsResponse);
     }
@@ -58,7 +71,7 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareStatsResponse(ResponseEntity<Object> response) {
+    private static <R> ResponseEntity<R> prepareStatsResponse(ResponseEntity<R> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
         }
@@ -71,4 +84,4 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package ru.practicum.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// при недоступном или медленном сервисе статистики вызовы отклоняются сразу, не занимая потоки Tomcat:
+// выключатель размыкается по доле ошибок и медленных ответов, затем пропускает несколько пробных вызовов,
+// а ограничитель параллельности не даёт запросам к статистике занять больше заданного числа потоков
+@Component
+@Slf4j
+public class StatsCallGuard {
+    private static final String NAME = "stats-server";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public StatsCallGuard(MeterRegistry meterRegistry,
+                          @Value("${stats-server.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                          @Value("${stats-server.circuit-breaker.slow-call-duration-ms:2000}") long slowCallDurationMs,
+                          @Value("${stats-server.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                          @Value("${stats-server.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+                          @Value("${stats-server.circuit-breaker.open-state-ms:10000}") long openStateMs,
+                          @Value("${stats-server.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+                          @Value("${stats-server.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // ответы 4xx означают ошибку в запросе, а не сбой сервиса статистики
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(NAME);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Выключатель вызовов сервиса статистики: {}", event.getStateTransition()));
+    }
+
+    // выключатель снаружи ограничителя: отказы из-за переполнения тоже учитываются как признак перегрузки
+    public <R> R call(Supplier<R> supplier) {
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, supplier)).get();
+    }
+}
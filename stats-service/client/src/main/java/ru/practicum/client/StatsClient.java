@@ -1,13 +1,22 @@
 package ru.practicum.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.dto.EndpointHitBatchResultDto;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.dto.ViewStatsTopRequestDto;
 
 import java.util.HashMap;
 import java.util.List;
@@ -16,15 +25,24 @@ import java.util.Map;
 @Service
 public class StatsClient extends BaseClient {
     @Autowired
-    public StatsClient(@Value("http://stats-service:9090") String serverUrl, RestTemplateBuilder builder) {
+    public StatsClient(@Value("${stats-server.url:http://stats-service:9090}") String serverUrl,
+                       @Value("${stats-server.connect-timeout-ms:1000}") int connectTimeout,
+                       @Value("${stats-server.read-timeout-ms:3000}") int readTimeout,
+                       @Value("${stats-server.pool.max-total:50}") int maxTotal,
+                       @Value("${stats-server.pool.max-per-route:50}") int maxPerRoute,
+                       RestTemplateBuilder builder,
+                       MeterRegistry meterRegistry,
+                       StatsCallGuard callGuard) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory(connectTimeout, readTimeout, maxTotal, maxPerRoute))
+                        .additionalInterceptors(new StatsClientMetrics(meterRegistry))
+                        .build(),
+                callGuard
         );
     }
 
-    public ResponseEntity<Object> getStats(String start, String end, List<String> uris, Boolean unique) {
+    public ResponseEntity<ViewStatsDto[]> getStats(String start, String end, List<String> uris, Boolean unique) {
         if (uris != null) {
             Map<String, Object> parameters = new HashMap<>();
             parameters.put("start", start);
@@ -38,18 +56,46 @@ public class StatsClient extends BaseClient {
 
             String url = "/stats/?start={start}&end={end}" + urisParam.toString() + "&unique={unique}";
 
-            return get(url, parameters);
+            return get(url, parameters, ViewStatsDto[].class);
         } else {
             Map<String, Object> parameters = Map.of("start", start,
                     "end", end,
                     "unique", unique
             );
 
-            return get("/stats/?start={start}&end={end}&unique={unique}", parameters);
+            return get("/stats/?start={start}&end={end}&unique={unique}", parameters, ViewStatsDto[].class);
         }
     }
 
-    public ResponseEntity<Object> add(EndpointHitDto endpointHitDto) {
-        return post("/hit", endpointHitDto);
+    public ResponseEntity<ViewStatsDto[]> getTopStats(ViewStatsTopRequestDto viewStatsTopRequestDto) {
+        return post("/stats/top", viewStatsTopRequestDto, ViewStatsDto[].class);
+    }
+
+    public ResponseEntity<EndpointHitDto> add(EndpointHitDto endpointHitDto) {
+        return post("/hit", endpointHitDto, EndpointHitDto.class);
+    }
+
+    public ResponseEntity<EndpointHitBatchResultDto> addAll(List<EndpointHitDto> endpointHitDtos) {
+        return post("/hit/batch", endpointHitDtos, EndpointHitBatchResultDto.class);
+    }
+
+    private static ClientHttpRequestFactory requestFactory(int connectTimeout, int readTimeout,
+                                                           int maxTotal, int maxPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
 }
@@ -0,0 +1,181 @@
+package ru.practicum.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// стандартная метрика http.client.requests берёт тег uri из шаблона, а список uris вклеивается в него целиком,
+// поэтому здесь тегом служит только путь операции: /stats, /stats/top, /hit, /hit/batch
+public class StatsClientMetrics implements ClientHttpRequestInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    public StatsClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String operation = operation(request.getURI().getPath());
+        String method = request.getMethodValue();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        DistributionSummary.builder("stats.client.request.size")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(body.length);
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            sample.stop(timer(operation, method, "IO_ERROR", "IO_ERROR"));
+            throw e;
+        }
+
+        return new MeteredResponse(response, operation, method, sample);
+    }
+
+    private Timer timer(String operation, String method, String outcome, String status) {
+        return Timer.builder("stats.client.requests")
+                .description("Запросы к сервису статистики вместе с чтением ответа")
+                .tag("operation", operation)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private static String operation(String path) {
+        return path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String outcome(int status) {
+        HttpStatus.Series series = HttpStatus.Series.resolve(status);
+
+        return series != null ? series.name() : "UNKNOWN";
+    }
+
+    // время и размер ответа фиксируются при закрытии: RestTemplate закрывает ответ после чтения тела
+    private class MeteredResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final String operation;
+        private final String method;
+        private final Timer.Sample sample;
+        private CountingInputStream body;
+        private boolean closed;
+
+        private MeteredResponse(ClientHttpResponse response, String operation, String method, Timer.Sample sample) {
+            this.response = response;
+            this.operation = operation;
+            this.method = method;
+            this.sample = sample;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(response.getBody());
+            }
+
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                record();
+            }
+
+            response.close();
+        }
+
+        private void record() {
+            String status;
+            String outcome;
+            try {
+                int rawStatus = response.getRawStatusCode();
+                status = String.valueOf(rawStatus);
+                outcome = outcome(rawStatus);
+            } catch (IOException e) {
+                status = "IO_ERROR";
+                outcome = "IO_ERROR";
+            }
+
+            sample.stop(timer(operation, method, outcome, status));
+            DistributionSummary.builder("stats.client.response.size")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(body != null ? body.count : 0);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Data
+@Builder
+@NoArgsConstructor
+public class EndpointHitBatchResultDto {
+    private long received;
+    private long saved;
+}
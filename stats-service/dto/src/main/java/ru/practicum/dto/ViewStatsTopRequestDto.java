@@ -0,0 +1,35 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+@Builder
+@NoArgsConstructor
+public class ViewStatsTopRequestDto {
+    @NotBlank
+    private String start;
+
+    @NotBlank
+    private String end;
+
+    @NotNull
+    private List<String> uris;
+
+    private boolean unique;
+
+    @PositiveOrZero
+    private int from;
+
+    @Positive
+    private int size;
+}
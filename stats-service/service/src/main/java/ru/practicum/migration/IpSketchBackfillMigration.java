@@ -0,0 +1,135 @@
+package ru.practicum.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.sketch.HyperLogLog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+// V4: скетчи уникальных ip для часовых и дневных агрегатов, созданных V3 по уже накопленным посещениям;
+// HyperLogLog считается только на Java, поэтому миграция не SQL. Посещения читаются курсором, упорядоченными
+// по агрегату, и в памяти всегда один скетч
+@Component
+public class IpSketchBackfillMigration implements JavaMigration {
+    private static final int FETCH_SIZE = 10000;
+    private static final int BATCH_SIZE = 1000;
+    private static final List<RollupGranularity> SKETCH_GRANULARITIES = List.of(RollupGranularity.HOUR,
+            RollupGranularity.DAY);
+    private static final String UPDATE_SKETCH = "UPDATE endpoint_hits_rollup SET ip_sketch = ? " +
+            "WHERE granularity = ? AND bucket_start = ? AND app = ? AND uri = ?";
+
+    private final int sketchPrecision;
+
+    public IpSketchBackfillMigration(@Value("${stats.hll.error-bound:0.02}") double errorBound) {
+        this.sketchPrecision = HyperLogLog.precisionForErrorBound(errorBound);
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill ip sketches";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+
+        for (RollupGranularity granularity : SKETCH_GRANULARITIES) {
+            backfill(connection, granularity);
+        }
+    }
+
+    private void backfill(Connection connection, RollupGranularity granularity) throws SQLException {
+        String unit = granularity.name().toLowerCase();
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(UPDATE_SKETCH)) {
+            // курсор с fetch size работает только внутри транзакции, Flyway выполняет миграцию в ней
+            select.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = select.executeQuery("SELECT date_trunc('" + unit + "', timestamp) AS bucket_start, " +
+                    "app, uri, ip FROM endpoint_hits ORDER BY bucket_start, app, uri")) {
+                Timestamp bucketStart = null;
+                String app = null;
+                String uri = null;
+                HyperLogLog sketch = null;
+                int pending = 0;
+
+                while (rs.next()) {
+                    Timestamp rowBucketStart = rs.getTimestamp("bucket_start");
+                    String rowApp = rs.getString("app");
+                    String rowUri = rs.getString("uri");
+
+                    if (sketch == null || !rowBucketStart.equals(bucketStart) || !rowApp.equals(app)
+                            || !rowUri.equals(uri)) {
+                        if (sketch != null) {
+                            pending = addUpdate(update, sketch, granularity, bucketStart, app, uri, pending);
+                        }
+                        bucketStart = rowBucketStart;
+                        app = rowApp;
+                        uri = rowUri;
+                        sketch = new HyperLogLog(sketchPrecision);
+                    }
+
+                    sketch.add(rs.getString("ip"));
+                }
+
+                if (sketch != null) {
+                    addUpdate(update, sketch, granularity, bucketStart, app, uri, pending);
+                }
+                update.executeBatch();
+            }
+        }
+    }
+
+    private int addUpdate(PreparedStatement update, HyperLogLog sketch, RollupGranularity granularity,
+                          Timestamp bucketStart, String app, String uri, int pending) throws SQLException {
+        update.setBytes(1, sketch.toBytes());
+        update.setString(2, granularity.name());
+        update.setTimestamp(3, bucketStart);
+        update.setString(4, app);
+        update.setString(5, uri);
+        update.addBatch();
+
+        if (pending + 1 < BATCH_SIZE) {
+            return pending + 1;
+        }
+
+        update.executeBatch();
+        return 0;
+    }
+}
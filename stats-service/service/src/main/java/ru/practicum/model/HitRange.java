@@ -0,0 +1,57 @@
+package ru.practicum.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class HitRange {
+    private RollupGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+
+    public static List<HitRange> split(LocalDateTime from, LocalDateTime to, RollupGranularity finest) {
+        List<HitRange> ranges = new ArrayList<>();
+        RollupGranularity edgeGranularity = null;
+        LocalDateTime left = from;
+        LocalDateTime right = to;
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            if (granularity.compareTo(finest) < 0) {
+                continue;
+            }
+
+            LocalDateTime alignedLeft = granularity.ceil(left);
+            LocalDateTime alignedRight = granularity.truncate(right);
+
+            if (!alignedLeft.isBefore(alignedRight)) {
+                break;
+            }
+
+            addIfNotEmpty(ranges, edgeGranularity, left, alignedLeft);
+            addIfNotEmpty(ranges, edgeGranularity, alignedRight, right);
+            left = alignedLeft;
+            right = alignedRight;
+            edgeGranularity = granularity;
+        }
+
+        addIfNotEmpty(ranges, edgeGranularity, left, right);
+
+        return ranges;
+    }
+
+    private static void addIfNotEmpty(List<HitRange> ranges, RollupGranularity granularity,
+                                      LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            ranges.add(new HitRange(granularity, from, to));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+@Data
+@AllArgsConstructor
+public class HitRollupKey implements Comparable<HitRollupKey> {
+    private static final Comparator<HitRollupKey> ORDER = Comparator.comparing(HitRollupKey::getGranularity)
+            .thenComparing(HitRollupKey::getBucketStart)
+            .thenComparing(HitRollupKey::getApp)
+            .thenComparing(HitRollupKey::getUri);
+
+    private RollupGranularity granularity;
+    private LocalDateTime bucketStart;
+    private String app;
+    private String uri;
+
+    @Override
+    public int compareTo(HitRollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+@Slf4j
+public class HitPartitionManager {
+    private static final String PARENT_TABLE = "endpoint_hits";
+    private static final String DEFAULT_PARTITION = "endpoint_hits_default";
+    private static final String PARTITION_PREFIX = "endpoint_hits_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long MAINTENANCE_LOCK_ID = 0x656e6470L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public HitPartitionManager(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${stats.partitions.months-ahead:3}") int monthsAhead,
+                               @Value("${stats.partitions.retention-months:12}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+        verifyPruning();
+    }
+
+    @Scheduled(cron = "${stats.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = retentionMonths > 0 ? current.minusMonths(retentionMonths - 1) : null;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // несколько экземпляров сервиса не должны одновременно перестраивать секции
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, MAINTENANCE_LOCK_ID);
+
+            Set<YearMonth> existing = findPartitions();
+
+            if (oldestKept != null) {
+                for (YearMonth month : existing) {
+                    if (month.isBefore(oldestKept)) {
+                        dropPartition(month);
+                    }
+                }
+
+                int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?",
+                        Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay()));
+                if (deleted > 0) {
+                    log.info("Удалено устаревших посещений из секции по умолчанию: {}", deleted);
+                }
+            }
+
+            // посещения из прежней несекционированной таблицы и поздние посещения лежат в секции по умолчанию,
+            // для их месяцев тоже создаются секции, иначе запросы за эти месяцы читают её целиком
+            Set<YearMonth> months = findDefaultPartitionMonths();
+            for (int i = 0; i <= monthsAhead; i++) {
+                months.add(current.plusMonths(i));
+            }
+
+            for (YearMonth month : months) {
+                if (!existing.contains(month)) {
+                    createPartition(month);
+                }
+            }
+        });
+    }
+
+    // запрос за текущий месяц должен обращаться только к одной секции
+    public void verifyPruning() {
+        YearMonth current = YearMonth.now();
+        Set<String> scannedPartitions = findScannedPartitions(current.atDay(1).atStartOfDay(),
+                current.plusMonths(1).atDay(1).atStartOfDay());
+
+        String expected = partitionName(current);
+        if (scannedPartitions.size() == 1 && scannedPartitions.contains(expected)) {
+            log.info("Отсечение секций работает: запрос за {} читает только {}", current, expected);
+        } else {
+            log.warn("Отсечение секций не сработало: запрос за {} читает секции {}", current, scannedPartitions);
+        }
+    }
+
+    // секции, которые читает запрос по диапазону [from, to) той же формы, что запросы StatsJdbcRepository
+    public Set<String> findScannedPartitions(LocalDateTime from, LocalDateTime to) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT app, uri, COUNT(DISTINCT ip) " +
+                        "FROM " + PARENT_TABLE + " WHERE timestamp >= ? AND timestamp < ? GROUP BY app, uri",
+                String.class, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        Set<String> scannedPartitions = new TreeSet<>();
+        for (String line : plan) {
+            String[] words = line.trim().split("\\s+");
+            for (int i = 1; i < words.length; i++) {
+                if (words[i - 1].equals("on") && words[i].startsWith(PARENT_TABLE + "_")) {
+                    scannedPartitions.add(words[i]);
+                }
+            }
+        }
+
+        return scannedPartitions;
+    }
+
+    private Set<YearMonth> findPartitions() {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", String.class, PARENT_TABLE);
+
+        Set<YearMonth> partitions = new TreeSet<>();
+        for (String name : names) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                partitions.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX_FORMATTER));
+            }
+        }
+
+        return partitions;
+    }
+
+    private Set<YearMonth> findDefaultPartitionMonths() {
+        List<Timestamp> months = jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', timestamp) " +
+                "FROM " + DEFAULT_PARTITION, Timestamp.class);
+
+        Set<YearMonth> result = new TreeSet<>();
+        for (Timestamp month : months) {
+            result.add(YearMonth.from(month.toLocalDateTime()));
+        }
+
+        return result;
+    }
+
+    // строки за этот месяц могли уже попасть в секцию по умолчанию, иначе ATTACH завершится ошибкой
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Timestamp fromTimestamp = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTimestamp = Timestamp.valueOf(to.atStartOfDay());
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS)");
+        // до конца транзакции новые посещения ждут, иначе строка, вставленная после переноса, сорвёт ATTACH
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE timestamp >= ? AND timestamp < ? RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved", fromTimestamp, toTimestamp);
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+
+        log.info("Создана секция {} для посещений с {} по {}, перенесено из секции по умолчанию: {}",
+                name, from, to, moved);
+    }
+
+    private void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+
+        log.info("Удалена секция {} по политике хранения {} мес.", name, retentionMonths);
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX_FORMATTER);
+    }
+}
@@ -0,0 +1,306 @@
+package ru.practicum.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class HyperLogLog {
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+    // первый байт разреженного формата: регистры плотного формата неотрицательны, поэтому форматы не путаются
+    private static final byte SPARSE_MARKER = -1;
+    private static final int SPARSE_HEADER_SIZE = 2;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private final int precision;
+    // пока ненулевых регистров мало, хранятся только они: индекс << 8 | ранг по возрастанию индекса;
+    // у скетча часа или дня по одному uri обычно заполнена малая часть из 4096 регистров
+    private int[] sparse;
+    private int sparseSize;
+    private byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Точность HyperLogLog должна быть от " + MIN_PRECISION + " до "
+                    + MAX_PRECISION);
+        }
+
+        this.precision = precision;
+        this.sparse = new int[Math.min(8, sparseLimit())];
+    }
+
+    private HyperLogLog(HyperLogLog other) {
+        this.precision = other.precision;
+        this.sparse = other.sparse != null ? other.sparse.clone() : null;
+        this.sparseSize = other.sparseSize;
+        this.registers = other.registers != null ? other.registers.clone() : null;
+    }
+
+    // читает и разреженный формат, и плотный, в котором скетчи хранились раньше
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == SPARSE_MARKER) {
+            return fromSparseBytes(bytes);
+        }
+
+        int precision = Integer.numberOfTrailingZeros(bytes.length);
+
+        if (bytes.length != 1 << precision || precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Некорректный размер HyperLogLog: " + bytes.length);
+        }
+
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != 0) {
+                sketch.setMax(i, bytes[i]);
+            }
+        }
+
+        return sketch;
+    }
+
+    // стандартная ошибка оценки HyperLogLog равна 1.04 / sqrt(m), где m = 2^precision
+    public static int precisionForErrorBound(double errorBound) {
+        double registersNeeded = Math.pow(1.04 / errorBound, 2);
+        int precision = (int) Math.ceil(Math.log(registersNeeded) / Math.log(2));
+
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        setMax(index, rank);
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision < precision) {
+            return other.copy().merge(this);
+        }
+
+        HyperLogLog source = other.precision > precision ? other.reduce(precision) : other;
+        source.forEachRegister(this::setMax);
+
+        return this;
+    }
+
+    public HyperLogLog reduce(int targetPrecision) {
+        if (targetPrecision >= precision) {
+            return copy();
+        }
+
+        HyperLogLog reduced = new HyperLogLog(targetPrecision);
+        int shift = precision - targetPrecision;
+        int middleMask = (1 << shift) - 1;
+
+        forEachRegister((index, rank) -> {
+            int middleBits = index & middleMask;
+            int reducedRank = middleBits != 0
+                    ? Integer.numberOfLeadingZeros(middleBits) - (Integer.SIZE - shift) + 1
+                    : shift + rank;
+
+            reduced.setMax(index >>> shift, reducedRank);
+        });
+
+        return reduced;
+    }
+
+    public long estimate() {
+        int m = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+
+        if (registers != null) {
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = m - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0xff));
+            }
+        }
+
+        // при малом числе значений точнее линейный подсчёт по пустым регистрам; переключение решается по его же
+        // оценке: сырая оценка HyperLogLog около 2.5 * m завышена на 1-2%, и порог по ней даёт скачок ошибки
+        if (zeros > 0) {
+            double linearEstimate = m * Math.log((double) m / zeros);
+            if (linearEstimate <= 3 * m) {
+                return Math.round(linearEstimate);
+            }
+        }
+
+        return Math.round(alpha(m) * m * m / sum);
+    }
+
+    // разреженный формат: маркер, точность и по три байта на ненулевой регистр (индекс и ранг)
+    public byte[] toBytes() {
+        if (registers != null) {
+            return registers.clone();
+        }
+
+        byte[] bytes = new byte[SPARSE_HEADER_SIZE + sparseSize * SPARSE_ENTRY_SIZE];
+        bytes[0] = SPARSE_MARKER;
+        bytes[1] = (byte) precision;
+
+        for (int i = 0; i < sparseSize; i++) {
+            int offset = SPARSE_HEADER_SIZE + i * SPARSE_ENTRY_SIZE;
+            bytes[offset] = (byte) (sparse[i] >>> 16);
+            bytes[offset + 1] = (byte) (sparse[i] >>> 8);
+            bytes[offset + 2] = (byte) sparse[i];
+        }
+
+        return bytes;
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(this);
+    }
+
+    private static HyperLogLog fromSparseBytes(byte[] bytes) {
+        int precision = bytes.length >= SPARSE_HEADER_SIZE ? bytes[1] : 0;
+
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION
+                || (bytes.length - SPARSE_HEADER_SIZE) % SPARSE_ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException("Некорректный разреженный HyperLogLog: " + bytes.length + " байт");
+        }
+
+        HyperLogLog sketch = new HyperLogLog(precision);
+
+        for (int offset = SPARSE_HEADER_SIZE; offset < bytes.length; offset += SPARSE_ENTRY_SIZE) {
+            int index = (bytes[offset] & 0xff) << 8 | (bytes[offset + 1] & 0xff);
+            int rank = bytes[offset + 2] & 0xff;
+
+            if (index >= 1 << precision || rank == 0) {
+                throw new IllegalArgumentException("Некорректный регистр HyperLogLog: " + index);
+            }
+
+            sketch.setMax(index, rank);
+        }
+
+        return sketch;
+    }
+
+    // разреженный вид занимает не больше плотного, дальше скетч переходит на массив регистров
+    private int sparseLimit() {
+        return (1 << precision) / 4;
+    }
+
+    private void setMax(int index, int rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        int position = findSparse(index);
+
+        if (position >= 0) {
+            if (rank > (sparse[position] & 0xff)) {
+                sparse[position] = index << 8 | rank;
+            }
+            return;
+        }
+
+        if (sparseSize == sparseLimit()) {
+            toDense();
+            registers[index] = (byte) rank;
+            return;
+        }
+
+        int insertAt = -position - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, sparseLimit()));
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << 8 | rank;
+        sparseSize++;
+    }
+
+    private int findSparse(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleIndex = sparse[middle] >>> 8;
+
+            if (middleIndex < index) {
+                low = middle + 1;
+            } else if (middleIndex > index) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    private void toDense() {
+        registers = new byte[1 << precision];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) sparse[i];
+        }
+
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private void forEachRegister(RegisterConsumer consumer) {
+        if (registers != null) {
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    consumer.accept(i, registers[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < sparseSize; i++) {
+                consumer.accept(sparse[i] >>> 8, sparse[i] & 0xff);
+            }
+        }
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private interface RegisterConsumer {
+        void accept(int index, int rank);
+    }
+}
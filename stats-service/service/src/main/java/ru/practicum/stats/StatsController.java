@@ -1,9 +1,13 @@
 package ru.practicum.stats;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,30 +15,81 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.dto.EndpointHitBatchResultDto;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.dto.ViewStatsTopRequestDto;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @RestController
 @Slf4j
 @Validated
 public class StatsController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final StatsServiceImpl statsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @GetMapping("/stats")
     @ResponseStatus(HttpStatus.OK)
     public List<ViewStatsDto> getStats(@RequestParam("start") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
                                        @RequestParam("end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
                                        @RequestParam(required = false) List<String> uris,
-                                       @RequestParam(defaultValue = "false") Boolean unique) {
+                                       @RequestParam(defaultValue = "false") Boolean unique,
+                                       @RequestParam(defaultValue = "false") Boolean exact,
+                                       @RequestParam(required = false) @Positive Integer limit) {
 
         log.info("получен запрос на получение статистики");
 
-        return statsService.getStats(start, end, uris, unique);
+        return statsService.getStats(start, end, uris, unique, exact, limit);
+    }
+
+    @GetMapping(value = "/stats", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStats(@RequestParam("start") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+                                                             @RequestParam("end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+                                                             @RequestParam(required = false) List<String> uris,
+                                                             @RequestParam(defaultValue = "false") Boolean unique,
+                                                             @RequestParam(defaultValue = "false") Boolean exact,
+                                                             @RequestParam(required = false) @Positive Integer limit) {
+        log.info("получен запрос на потоковое получение статистики в формате JSON");
+
+        return stream(start, end, uris, unique, exact, limit, false);
+    }
+
+    @GetMapping(value = "/stats", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStatsNdjson(@RequestParam("start") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+                                                                   @RequestParam("end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+                                                                   @RequestParam(required = false) List<String> uris,
+                                                                   @RequestParam(defaultValue = "false") Boolean unique,
+                                                                   @RequestParam(defaultValue = "false") Boolean exact,
+                                                                   @RequestParam(required = false) @Positive Integer limit) {
+        log.info("получен запрос на потоковое получение статистики в формате NDJSON");
+
+        return stream(start, end, uris, unique, exact, limit, true);
+    }
+
+    @PostMapping("/stats/top")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ViewStatsDto> getTopStats(@RequestBody @Valid ViewStatsTopRequestDto viewStatsTopRequestDto) {
+        log.info("получен запрос на получение самых просматриваемых uri, кандидатов: "
+                + viewStatsTopRequestDto.getUris().size());
+
+        return statsService.getTopStats(viewStatsTopRequestDto);
     }
 
     @PostMapping("/hit")
@@ -44,4 +99,78 @@ public class StatsController {
 
         return statsService.add(endPointHitDto);
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public EndpointHitBatchResultDto addAll(@RequestBody List<@Valid EndpointHitDto> endpointHitDtos) {
+        log.info("получен запрос на добавление пачки посещений эндпоинтов, размер: " + endpointHitDtos.size());
+
+        return statsService.addAll(endpointHitDtos);
+    }
+
+    @PostMapping(value = "/hit/batch", consumes = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public EndpointHitBatchResultDto addAllNdjson(InputStream body) throws IOException {
+        List<EndpointHitDto> endpointHitDtos = objectMapper.readerFor(EndpointHitDto.class)
+                .<EndpointHitDto>readValues(body)
+                .readAll();
+        log.info("получен запрос на добавление пачки посещений эндпоинтов в формате NDJSON, размер: "
+                + endpointHitDtos.size());
+
+        validate(endpointHitDtos);
+
+        return statsService.addAll(endpointHitDtos);
+    }
+
+    // проверка дат выполняется до начала ответа, чтобы ошибка вернулась с обычным статусом
+    private ResponseEntity<StreamingResponseBody> stream(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                         Boolean unique, Boolean exact, Integer limit,
+                                                         boolean ndjson) {
+        statsService.checkDateRange(start, end);
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            try {
+                statsService.streamStats(start, end, uris, unique, exact, limit, viewStatsDto -> {
+                    try {
+                        generator.writeObject(viewStatsDto);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType(APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void validate(List<EndpointHitDto> endpointHitDtos) {
+        Set<ConstraintViolation<EndpointHitDto>> violations = new HashSet<>();
+
+        for (EndpointHitDto endpointHitDto : endpointHitDtos) {
+            violations.addAll(validator.validate(endpointHitDto));
+        }
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+}
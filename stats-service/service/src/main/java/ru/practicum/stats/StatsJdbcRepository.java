@@ -0,0 +1,341 @@
+package ru.practicum.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.HitRange;
+import ru.practicum.model.HitRollupKey;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.model.ViewStats;
+import ru.practicum.sketch.HyperLogLog;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Repository
+public class StatsJdbcRepository {
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_HIT = "INSERT INTO endpoint_hits (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)";
+    private static final String UPSERT_ROLLUP = "INSERT INTO endpoint_hits_rollup (granularity, bucket_start, app, uri, hits) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (granularity, bucket_start, app, uri) " +
+            "DO UPDATE SET hits = endpoint_hits_rollup.hits + EXCLUDED.hits";
+    private static final String UPDATE_SKETCH = "UPDATE endpoint_hits_rollup SET ip_sketch = ? " +
+            "WHERE granularity = ? AND bucket_start = ? AND app = ? AND uri = ?";
+    private static final List<RollupGranularity> SKETCH_GRANULARITIES = List.of(RollupGranularity.HOUR,
+            RollupGranularity.DAY);
+
+    private static final RowMapper<ViewStats> VIEW_STATS_ROW_MAPPER = (rs, rowNum) -> new ViewStats(
+            rs.getString("app"), rs.getString("uri"), rs.getLong("hits"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final int sketchPrecision;
+
+    public StatsJdbcRepository(JdbcTemplate jdbcTemplate,
+                               NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                               @Value("${stats.hll.error-bound:0.02}") double errorBound,
+                               @Value("${stats.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.sketchPrecision = HyperLogLog.precisionForErrorBound(errorBound);
+
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(fetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+    }
+
+    public int saveAll(List<EndpointHit> endpointHits) {
+        int[][] batchCounts = jdbcTemplate.batchUpdate(INSERT_HIT, endpointHits, BATCH_SIZE, (ps, endpointHit) -> {
+            ps.setString(1, endpointHit.getApp());
+            ps.setString(2, endpointHit.getUri());
+            ps.setString(3, endpointHit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(endpointHit.getTimestamp()));
+        });
+
+        return sumCounts(batchCounts);
+    }
+
+    public void addToRollups(List<EndpointHit> endpointHits) {
+        Map<HitRollupKey, Long> increments = new TreeMap<>();
+        Map<HitRollupKey, Set<String>> ips = new TreeMap<>();
+
+        for (EndpointHit endpointHit : endpointHits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                HitRollupKey key = new HitRollupKey(granularity, granularity.truncate(endpointHit.getTimestamp()),
+                        endpointHit.getApp(), endpointHit.getUri());
+                increments.merge(key, 1L, Long::sum);
+
+                if (SKETCH_GRANULARITIES.contains(granularity)) {
+                    ips.computeIfAbsent(key, k -> new HashSet<>()).add(endpointHit.getIp());
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, increments.entrySet(), BATCH_SIZE, (ps, increment) -> {
+            HitRollupKey key = increment.getKey();
+            ps.setString(1, key.getGranularity().name());
+            ps.setTimestamp(2, Timestamp.valueOf(key.getBucketStart()));
+            ps.setString(3, key.getApp());
+            ps.setString(4, key.getUri());
+            ps.setLong(5, increment.getValue());
+        });
+
+        // строки уже заблокированы upsert-ом выше, поэтому параллельные пачки не перезапишут скетчи друг друга
+        Map<HitRollupKey, HyperLogLog> sketches = findSketches(ips.keySet());
+
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH, ips.entrySet(), BATCH_SIZE, (ps, entry) -> {
+            HitRollupKey key = entry.getKey();
+            HyperLogLog sketch = sketches.getOrDefault(key, new HyperLogLog(sketchPrecision));
+            entry.getValue().forEach(sketch::add);
+
+            ps.setBytes(1, sketch.toBytes());
+            ps.setString(2, key.getGranularity().name());
+            ps.setTimestamp(3, Timestamp.valueOf(key.getBucketStart()));
+            ps.setString(4, key.getApp());
+            ps.setString(5, key.getUri());
+        });
+    }
+
+    public List<ViewStats> getUniqueViewStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        List<HitRange> ranges = HitRange.split(start, toExclusive(end), RollupGranularity.HOUR);
+        Map<String, Map<String, HyperLogLog>> sketchesByApp = new HashMap<>();
+
+        for (HitRange range : ranges) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("from", Timestamp.valueOf(range.getFrom()))
+                    .addValue("to", Timestamp.valueOf(range.getTo()));
+            String urisCondition = addUrisParameter(uris, parameters);
+
+            if (range.isRaw()) {
+                String sql = "SELECT DISTINCT app, uri, ip FROM endpoint_hits " +
+                        "WHERE timestamp >= :from AND timestamp < :to" + urisCondition;
+                namedParameterJdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs ->
+                        sketchFor(sketchesByApp, rs.getString("app"), rs.getString("uri")).add(rs.getString("ip")));
+            } else {
+                String sql = "SELECT app, uri, ip_sketch FROM endpoint_hits_rollup " +
+                        "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to " +
+                        "AND ip_sketch IS NOT NULL" + urisCondition;
+                parameters.addValue("granularity", range.getGranularity().name());
+                namedParameterJdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs ->
+                        sketchesByApp.computeIfAbsent(rs.getString("app"), app -> new HashMap<>())
+                                .merge(rs.getString("uri"), HyperLogLog.fromBytes(rs.getBytes("ip_sketch")),
+                                        HyperLogLog::merge));
+            }
+        }
+
+        List<ViewStats> viewStatsList = new ArrayList<>();
+        sketchesByApp.forEach((app, sketchesByUri) -> sketchesByUri.forEach((uri, sketch) ->
+                viewStatsList.add(new ViewStats(app, uri, sketch.estimate()))));
+        viewStatsList.sort(Comparator.comparingLong(ViewStats::getHits).reversed());
+
+        return viewStatsList;
+    }
+
+    public boolean hasSketchBuckets(LocalDateTime start, LocalDateTime end) {
+        return HitRange.split(start, toExclusive(end), RollupGranularity.HOUR).stream()
+                .anyMatch(range -> !range.isRaw());
+    }
+
+    private Map<HitRollupKey, HyperLogLog> findSketches(Set<HitRollupKey> keys) {
+        Map<HitRollupKey, HyperLogLog> sketches = new HashMap<>();
+
+        if (keys.isEmpty()) {
+            return sketches;
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("granularities", SKETCH_GRANULARITIES.stream().map(Enum::name).collect(Collectors.toList()))
+                .addValue("buckets", keys.stream().map(key -> Timestamp.valueOf(key.getBucketStart()))
+                        .distinct().collect(Collectors.toList()))
+                .addValue("apps", keys.stream().map(HitRollupKey::getApp).distinct().collect(Collectors.toList()))
+                .addValue("uris", keys.stream().map(HitRollupKey::getUri).distinct().collect(Collectors.toList()));
+
+        String sql = "SELECT granularity, bucket_start, app, uri, ip_sketch FROM endpoint_hits_rollup " +
+                "WHERE granularity IN (:granularities) AND bucket_start IN (:buckets) AND app IN (:apps) " +
+                "AND uri IN (:uris) AND ip_sketch IS NOT NULL";
+
+        namedParameterJdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs -> {
+            HitRollupKey key = new HitRollupKey(RollupGranularity.valueOf(rs.getString("granularity")),
+                    rs.getTimestamp("bucket_start").toLocalDateTime(), rs.getString("app"), rs.getString("uri"));
+            if (keys.contains(key)) {
+                sketches.put(key, HyperLogLog.fromBytes(rs.getBytes("ip_sketch")));
+            }
+        });
+
+        return sketches;
+    }
+
+    private HyperLogLog sketchFor(Map<String, Map<String, HyperLogLog>> sketchesByApp, String app, String uri) {
+        return sketchesByApp.computeIfAbsent(app, a -> new HashMap<>())
+                .computeIfAbsent(uri, u -> new HyperLogLog(sketchPrecision));
+    }
+
+    public List<ViewStats> getViewStats(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = buildViewStatsQuery(start, end, uris, limit, parameters);
+
+        return namedParameterJdbcTemplate.query(sql, parameters, VIEW_STATS_ROW_MAPPER);
+    }
+
+    // результат читается курсором по fetch-size строк, поэтому вызывать нужно внутри транзакции:
+    // в режиме autocommit драйвер PostgreSQL загружает весь результат в память
+    public void streamViewStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                                Integer limit, Consumer<ViewStats> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql;
+
+        if (unique) {
+            sql = buildUniqueViewStatsQuery(start, end, uris, limit, parameters);
+        } else {
+            sql = buildViewStatsQuery(start, end, uris, limit, parameters);
+        }
+
+        streamingJdbcTemplate.query(sql, parameters, (RowCallbackHandler) rs ->
+                consumer.accept(VIEW_STATS_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    public List<ViewStats> getExactUniqueViewStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                   Integer limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = buildUniqueViewStatsQuery(start, end, uris, limit, parameters);
+
+        return namedParameterJdbcTemplate.query(sql, parameters, VIEW_STATS_ROW_MAPPER);
+    }
+
+    public List<ViewStats> getTopViewStats(LocalDateTime start, LocalDateTime end, List<String> uris, int from, int size) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("size", size);
+        String sql = "SELECT h.app, c.uri, COALESCE(h.hits, 0) AS hits " +
+                "FROM unnest(:uris) WITH ORDINALITY AS c(uri, position) " +
+                "LEFT JOIN (SELECT uri, MAX(app) AS app, SUM(hits) AS hits FROM (" +
+                buildHitsQuery(start, end, uris, parameters) + ") AS parts GROUP BY uri) AS h ON h.uri = c.uri " +
+                "ORDER BY hits DESC, c.position LIMIT :size OFFSET :from";
+
+        return namedParameterJdbcTemplate.query(sql, parameters, VIEW_STATS_ROW_MAPPER);
+    }
+
+    // рейтинг по уникальным ip считается в базе точно: в память попадает только запрошенная страница,
+    // а не скетчи всех кандидатов
+    public List<ViewStats> getTopUniqueViewStats(LocalDateTime start, LocalDateTime end, List<String> uris, int from,
+                                                 int size) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("size", size);
+        String sql = "SELECT h.app, c.uri, COALESCE(h.hits, 0) AS hits " +
+                "FROM unnest(:uris) WITH ORDINALITY AS c(uri, position) " +
+                "LEFT JOIN (SELECT uri, MAX(app) AS app, COUNT(DISTINCT ip) AS hits FROM endpoint_hits " +
+                "WHERE timestamp BETWEEN :start AND :end" + addUrisParameter(uris, parameters) +
+                " GROUP BY uri) AS h ON h.uri = c.uri " +
+                "ORDER BY hits DESC, c.position LIMIT :size OFFSET :from";
+        parameters.addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+
+        return namedParameterJdbcTemplate.query(sql, parameters, VIEW_STATS_ROW_MAPPER);
+    }
+
+    private String buildViewStatsQuery(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit,
+                                       MapSqlParameterSource parameters) {
+        return "SELECT app, uri, SUM(hits) AS hits FROM (" + buildHitsQuery(start, end, uris, parameters) +
+                ") AS parts GROUP BY app, uri ORDER BY hits DESC" + addLimitParameter(limit, parameters);
+    }
+
+    private String buildUniqueViewStatsQuery(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                             Integer limit, MapSqlParameterSource parameters) {
+        parameters.addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+
+        return "SELECT app, uri, COUNT(DISTINCT ip) AS hits FROM endpoint_hits " +
+                "WHERE timestamp BETWEEN :start AND :end" + addUrisParameter(uris, parameters) +
+                " GROUP BY app, uri ORDER BY hits DESC" + addLimitParameter(limit, parameters);
+    }
+
+    private String buildHitsQuery(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                  MapSqlParameterSource parameters) {
+        List<HitRange> ranges = HitRange.split(start, toExclusive(end), RollupGranularity.MINUTE);
+        List<String> parts = new ArrayList<>();
+        String urisCondition = addUrisParameter(uris, parameters);
+
+        for (int i = 0; i < ranges.size(); i++) {
+            HitRange range = ranges.get(i);
+            parameters.addValue("from" + i, Timestamp.valueOf(range.getFrom()));
+            parameters.addValue("to" + i, Timestamp.valueOf(range.getTo()));
+
+            if (range.isRaw()) {
+                parts.add("SELECT app, uri, COUNT(id) AS hits FROM endpoint_hits " +
+                        "WHERE timestamp >= :from" + i + " AND timestamp < :to" + i + urisCondition +
+                        " GROUP BY app, uri");
+            } else {
+                parameters.addValue("granularity" + i, range.getGranularity().name());
+                parts.add("SELECT app, uri, SUM(hits) AS hits FROM endpoint_hits_rollup " +
+                        "WHERE granularity = :granularity" + i + " AND bucket_start >= :from" + i +
+                        " AND bucket_start < :to" + i + urisCondition + " GROUP BY app, uri");
+            }
+        }
+
+        return String.join(" UNION ALL ", parts);
+    }
+
+    // список uri передаётся одним параметром-массивом, чтобы не упираться в лимит параметров запроса
+    private String addUrisParameter(List<String> uris, MapSqlParameterSource parameters) {
+        if (uris == null) {
+            return "";
+        }
+
+        parameters.addValue("uris", new AbstractSqlTypeValue() {
+            @Override
+            protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                return connection.createArrayOf("varchar", uris.toArray());
+            }
+        }, Types.ARRAY);
+
+        return " AND uri = ANY(:uris)";
+    }
+
+    private String addLimitParameter(Integer limit, MapSqlParameterSource parameters) {
+        if (limit == null) {
+            return "";
+        }
+
+        parameters.addValue("limit", limit);
+
+        return " LIMIT :limit";
+    }
+
+    // BETWEEN включает правую границу, а диапазоны разбиения полуоткрытые
+    private LocalDateTime toExclusive(LocalDateTime end) {
+        return end.plusNanos(1000);
+    }
+
+    private int sumCounts(int[][] batchCounts) {
+        int sum = 0;
+        for (int[] counts : batchCounts) {
+            for (int count : counts) {
+                sum += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.stats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// время выполнения каждого варианта запроса статистики: по скетчам, точный подсчёт уникальных ip, все посещения
+@Component
+@RequiredArgsConstructor
+public class StatsQueryMetrics {
+    public static final String SKETCH = "sketch";
+    public static final String UNIQUE_EXACT = "unique_exact";
+    public static final String HITS = "hits";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T record(String variant, String mode, List<String> uris, Supplier<T> query) {
+        return timer(variant, mode, uris).record(query);
+    }
+
+    public void record(String variant, String mode, List<String> uris, Runnable query) {
+        timer(variant, mode, uris).record(query);
+    }
+
+    private Timer timer(String variant, String mode, List<String> uris) {
+        return Timer.builder("stats.query")
+                .description("Запросы статистики посещений по вариантам")
+                .tag("variant", variant)
+                .tag("mode", mode)
+                .tag("uris", String.valueOf(uris != null))
+                .register(meterRegistry);
+    }
+}
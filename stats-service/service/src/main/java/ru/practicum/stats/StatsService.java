@@ -1,13 +1,26 @@
 package ru.practicum.stats;
 
+import ru.practicum.dto.EndpointHitBatchResultDto;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.dto.ViewStatsTopRequestDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatsService {
-    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
+    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                Boolean exact, Integer limit);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique, Boolean exact,
+                     Integer limit, Consumer<ViewStatsDto> consumer);
+
+    void checkDateRange(LocalDateTime start, LocalDateTime end);
+
+    List<ViewStatsDto> getTopStats(ViewStatsTopRequestDto viewStatsTopRequestDto);
 
     EndpointHitDto add(EndpointHitDto endpointHitDto);
+
+    EndpointHitBatchResultDto addAll(List<EndpointHitDto> endpointHitDtos);
 }
@@ -4,44 +4,55 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.EndpointHitBatchResultDto;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.dto.ViewStatsTopRequestDto;
 import ru.practicum.exception.DateTimeException;
 import ru.practicum.model.EndpointHit;
 import ru.practicum.model.ViewStats;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static ru.practicum.stats.StatsDateTimeFormatter.statsDateTimeformatter;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class StatsServiceImpl implements StatsService {
     private final StatsRepository statsRepository;
+    private final StatsJdbcRepository statsJdbcRepository;
+    private final StatsQueryMetrics statsQueryMetrics;
 
     @Override
-    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                       Boolean exact, Integer limit) {
         List<ViewStats> viewStatsList = new ArrayList<>();
 
-        if (end.isBefore(start)) {
-            throw new DateTimeException("Дата и время начала не может быть позже даты и времени конца");
+        checkDateRange(start, end);
+
+        if (uris != null && uris.isEmpty()) {
+            return new ArrayList<ViewStatsDto>();
         }
 
-        if (uris != null) {
-            if (unique) {
-                viewStatsList = statsRepository.getViewStatsByUrisUnique(start, end, uris);
-            } else {
-                viewStatsList = statsRepository.getViewStatsByUris(start, end, uris);
+        if (unique && !exact && statsJdbcRepository.hasSketchBuckets(start, end)) {
+            viewStatsList = statsQueryMetrics.record(StatsQueryMetrics.SKETCH, "list", uris,
+                    () -> statsJdbcRepository.getUniqueViewStats(start, end, uris));
+            if (limit != null && viewStatsList.size() > limit) {
+                viewStatsList = viewStatsList.subList(0, limit);
             }
+        } else if (unique) {
+            viewStatsList = statsQueryMetrics.record(StatsQueryMetrics.UNIQUE_EXACT, "list", uris,
+                    () -> statsJdbcRepository.getExactUniqueViewStats(start, end, uris, limit));
         } else {
-            if (unique) {
-                viewStatsList = statsRepository.getViewStatsUnique(start, end);
-            } else {
-                viewStatsList = statsRepository.getViewStats(start, end);
-            }
+            viewStatsList = statsQueryMetrics.record(StatsQueryMetrics.HITS, "list", uris,
+                    () -> statsJdbcRepository.getViewStats(start, end, uris, limit));
         }
 
         if (!viewStatsList.isEmpty()) {
@@ -51,12 +62,91 @@ public class StatsServiceImpl implements StatsService {
         }
     }
 
+    // оценка уникальных посещений по скетчам собирается в памяти целиком, остальные режимы читаются курсором
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique, Boolean exact,
+                            Integer limit, Consumer<ViewStatsDto> consumer) {
+        checkDateRange(start, end);
+
+        if (uris != null && uris.isEmpty()) {
+            return;
+        }
+
+        if (unique && !exact && statsJdbcRepository.hasSketchBuckets(start, end)) {
+            getStats(start, end, uris, true, false, limit).forEach(consumer);
+        } else {
+            statsQueryMetrics.record(unique ? StatsQueryMetrics.UNIQUE_EXACT : StatsQueryMetrics.HITS, "stream", uris,
+                    () -> statsJdbcRepository.streamViewStats(start, end, uris, unique, limit,
+                            viewStats -> consumer.accept(StatsMapper.toViewStatsDto(viewStats))));
+        }
+    }
+
+    @Override
+    public void checkDateRange(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            throw new DateTimeException("Дата и время начала не может быть позже даты и времени конца");
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> getTopStats(ViewStatsTopRequestDto viewStatsTopRequestDto) {
+        LocalDateTime start = parseDateTime(viewStatsTopRequestDto.getStart());
+        LocalDateTime end = parseDateTime(viewStatsTopRequestDto.getEnd());
+        List<String> uris = viewStatsTopRequestDto.getUris();
+        int from = viewStatsTopRequestDto.getFrom();
+        int size = viewStatsTopRequestDto.getSize();
+
+        checkDateRange(start, end);
+
+        if (uris.isEmpty()) {
+            return new ArrayList<ViewStatsDto>();
+        }
+
+        List<ViewStats> viewStatsList;
+
+        if (viewStatsTopRequestDto.isUnique()) {
+            viewStatsList = statsQueryMetrics.record(StatsQueryMetrics.UNIQUE_EXACT, "top", uris,
+                    () -> statsJdbcRepository.getTopUniqueViewStats(start, end, uris, from, size));
+        } else {
+            viewStatsList = statsQueryMetrics.record(StatsQueryMetrics.HITS, "top", uris,
+                    () -> statsJdbcRepository.getTopViewStats(start, end, uris, from, size));
+        }
+
+        return viewStatsList.stream().map(StatsMapper::toViewStatsDto).collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public EndpointHitDto add(EndpointHitDto endpointHitDto) {
         EndpointHit endPointHitToSave = StatsMapper.toEndPointHit(endpointHitDto);
         EndpointHit savedEndPointHit = statsRepository.save(endPointHitToSave);
+        statsJdbcRepository.addToRollups(List.of(savedEndPointHit));
 
         return StatsMapper.toEndpointHitDto(savedEndPointHit);
     }
+
+    @Override
+    @Transactional
+    public EndpointHitBatchResultDto addAll(List<EndpointHitDto> endpointHitDtos) {
+        List<EndpointHit> endpointHits = endpointHitDtos.stream()
+                .map(StatsMapper::toEndPointHit)
+                .collect(Collectors.toList());
+
+        int saved = statsJdbcRepository.saveAll(endpointHits);
+        statsJdbcRepository.addToRollups(endpointHits);
+        log.info("Сохранено посещений: {} из {}", saved, endpointHitDtos.size());
+
+        return EndpointHitBatchResultDto.builder()
+                .received(endpointHitDtos.size())
+                .saved(saved)
+                .build();
+    }
+
+    private LocalDateTime parseDateTime(String dateTime) {
+        try {
+            return LocalDateTime.parse(dateTime, statsDateTimeformatter);
+        } catch (DateTimeParseException e) {
+            throw new DateTimeException("Некорректный формат даты и времени: " + dateTime);
+        }
+    }
 }
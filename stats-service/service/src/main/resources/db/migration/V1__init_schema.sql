@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS endpoint_hits;
-
 CREATE TABLE IF NOT EXISTS endpoint_hits
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -8,4 +6,4 @@ CREATE TABLE IF NOT EXISTS endpoint_hits
     ip        VARCHAR(32)                             NOT NULL,
     timestamp TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     CONSTRAINT pk_endpoint_hits PRIMARY KEY (id)
-);
\ No newline at end of file
+);
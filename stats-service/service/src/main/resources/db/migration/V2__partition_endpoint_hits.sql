@@ -0,0 +1,27 @@
+-- обычная таблица посещений заменяется секционированной по месяцам; строки переносятся в секцию по умолчанию,
+-- помесячные секции для них создаёт HitPartitionManager при запуске
+ALTER TABLE endpoint_hits RENAME TO endpoint_hits_legacy;
+ALTER TABLE endpoint_hits_legacy RENAME CONSTRAINT pk_endpoint_hits TO pk_endpoint_hits_legacy;
+
+CREATE TABLE endpoint_hits
+(
+    id        BIGSERIAL                   NOT NULL,
+    app       VARCHAR(255)                NOT NULL,
+    uri       VARCHAR(255)                NOT NULL,
+    ip        VARCHAR(32)                 NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_endpoint_hits PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE endpoint_hits_default PARTITION OF endpoint_hits DEFAULT;
+
+CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp);
+
+INSERT INTO endpoint_hits (id, app, uri, ip, timestamp)
+SELECT id, app, uri, ip, timestamp
+FROM endpoint_hits_legacy;
+
+SELECT setval(pg_get_serial_sequence('endpoint_hits', 'id'), COALESCE(MAX(id), 0) + 1, false)
+FROM endpoint_hits;
+
+DROP TABLE endpoint_hits_legacy;
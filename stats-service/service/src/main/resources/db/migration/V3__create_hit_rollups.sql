@@ -0,0 +1,19 @@
+CREATE TABLE endpoint_hits_rollup
+(
+    granularity  VARCHAR(6)                  NOT NULL,
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    app          VARCHAR(255)                NOT NULL,
+    uri          VARCHAR(255)                NOT NULL,
+    hits         BIGINT                      NOT NULL,
+    ip_sketch    BYTEA,
+    CONSTRAINT pk_endpoint_hits_rollup PRIMARY KEY (granularity, bucket_start, app, uri)
+);
+
+CREATE INDEX idx_endpoint_hits_rollup_uri ON endpoint_hits_rollup (granularity, uri, bucket_start);
+
+-- агрегаты по уже накопленным посещениям; скетчи уникальных ip строит V4 на Java
+INSERT INTO endpoint_hits_rollup (granularity, bucket_start, app, uri, hits)
+SELECT g.granularity, date_trunc(g.unit, h.timestamp), h.app, h.uri, COUNT(*)
+FROM endpoint_hits h
+         CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+GROUP BY g.granularity, date_trunc(g.unit, h.timestamp), h.app, h.uri;
@@ -0,0 +1,100 @@
+package ru.practicum.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.TestDatabase;
+import ru.practicum.sketch.HyperLogLog;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// миграции должны поднимать и пустую базу, и базу, созданную прежним schema.sql, с теми же настройками Flyway,
+// что в application.properties
+class StatsSchemaMigrationTest {
+    private static final String LEGACY_SCHEMA = "CREATE TABLE IF NOT EXISTS endpoint_hits (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL, " +
+            "app VARCHAR(255) NOT NULL, " +
+            "uri VARCHAR(255) NOT NULL, " +
+            "ip VARCHAR(32) NOT NULL, " +
+            "timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL, " +
+            "CONSTRAINT pk_endpoint_hits PRIMARY KEY (id))";
+
+    @Test
+    void emptyDatabaseMigratesToPartitionedSchema() {
+        DataSource dataSource = TestDatabase.create("stats_migration_empty");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        migrate(dataSource);
+
+        assertPartitioned(jdbcTemplate);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM endpoint_hits_rollup", Long.class)).isZero();
+    }
+
+    @Test
+    void legacyDatabaseKeepsHitsAndGetsRollups() {
+        DataSource dataSource = TestDatabase.create("stats_migration_legacy");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(LEGACY_SCHEMA);
+        // 300 посещений /events/1 с 30 разных ip за один час и 50 посещений /events/2 днём позже
+        jdbcTemplate.update("INSERT INTO endpoint_hits (app, uri, ip, timestamp) " +
+                "SELECT 'ewm-main-service', '/events/1', '10.0.0.' || g % 30, " +
+                "TIMESTAMP '2024-03-10 12:00:00' + g * INTERVAL '10 seconds' FROM generate_series(0, 299) g");
+        jdbcTemplate.update("INSERT INTO endpoint_hits (app, uri, ip, timestamp) " +
+                "SELECT 'ewm-main-service', '/events/2', '10.0.1.' || g, " +
+                "TIMESTAMP '2024-03-11 08:00:00' + g * INTERVAL '1 minute' FROM generate_series(0, 49) g");
+
+        migrate(dataSource);
+
+        assertPartitioned(jdbcTemplate);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM endpoint_hits", Long.class)).isEqualTo(350);
+        assertThat(jdbcTemplate.queryForObject("SELECT hits FROM endpoint_hits_rollup " +
+                "WHERE granularity = 'DAY' AND bucket_start = '2024-03-10' AND uri = '/events/1'", Long.class))
+                .isEqualTo(300);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(hits) FROM endpoint_hits_rollup " +
+                "WHERE granularity = 'MINUTE'", Long.class)).isEqualTo(350);
+        // скетч тот же, что построил бы сервис при приёме этих посещений
+        assertThat(sketch(jdbcTemplate, "HOUR", "2024-03-10 12:00:00", "/events/1"))
+                .isEqualTo(expectedSketch("10.0.0.", 30));
+        assertThat(sketch(jdbcTemplate, "DAY", "2024-03-11 00:00:00", "/events/2"))
+                .isEqualTo(expectedSketch("10.0.1.", 50));
+
+        // идентификатор продолжает последовательность перенесённых строк
+        Long id = jdbcTemplate.queryForObject("INSERT INTO endpoint_hits (app, uri, ip, timestamp) " +
+                "VALUES ('ewm-main-service', '/events/3', '10.0.2.1', now()) RETURNING id", Long.class);
+        assertThat(id).isGreaterThan(350);
+    }
+
+    private void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .javaMigrations(new IpSketchBackfillMigration(0.02))
+                .load()
+                .migrate();
+    }
+
+    private void assertPartitioned(JdbcTemplate jdbcTemplate) {
+        assertThat(jdbcTemplate.queryForObject("SELECT relkind FROM pg_class WHERE relname = 'endpoint_hits'",
+                String.class)).isEqualTo("p");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_class WHERE relname = 'endpoint_hits_legacy'",
+                Long.class)).isZero();
+    }
+
+    private byte[] sketch(JdbcTemplate jdbcTemplate, String granularity, String bucketStart, String uri) {
+        return jdbcTemplate.queryForObject("SELECT ip_sketch FROM endpoint_hits_rollup " +
+                        "WHERE granularity = ? AND bucket_start = CAST(? AS TIMESTAMP) AND uri = ?", byte[].class,
+                granularity, bucketStart, uri);
+    }
+
+    private byte[] expectedSketch(String ipPrefix, int ips) {
+        HyperLogLog sketch = new HyperLogLog(HyperLogLog.precisionForErrorBound(0.02));
+        for (int i = 0; i < ips; i++) {
+            sketch.add(ipPrefix + i);
+        }
+
+        return sketch.toBytes();
+    }
+}
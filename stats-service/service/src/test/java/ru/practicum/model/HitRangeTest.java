@@ -0,0 +1,72 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitRangeTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    @Test
+    void splitUsesCoarsestBucketsInsideAndRawHitsAtEdges() {
+        LocalDateTime from = DAY.plusHours(10).plusMinutes(30).plusSeconds(15);
+        LocalDateTime to = DAY.plusDays(3).plusHours(2).plusMinutes(15);
+
+        List<HitRange> ranges = HitRange.split(from, to, RollupGranularity.MINUTE);
+
+        assertThat(ranges).containsExactly(
+                new HitRange(null, from, DAY.plusHours(10).plusMinutes(31)),
+                new HitRange(RollupGranularity.MINUTE, DAY.plusHours(10).plusMinutes(31), DAY.plusHours(11)),
+                new HitRange(RollupGranularity.MINUTE, DAY.plusDays(3).plusHours(2), to),
+                new HitRange(RollupGranularity.HOUR, DAY.plusHours(11), DAY.plusDays(1)),
+                new HitRange(RollupGranularity.HOUR, DAY.plusDays(3), DAY.plusDays(3).plusHours(2)),
+                new HitRange(RollupGranularity.DAY, DAY.plusDays(1), DAY.plusDays(3)));
+        assertCovers(ranges, from, to);
+    }
+
+    // у минутных сводок нет скетчей, поэтому для уникальных ip края дополняются сырыми посещениями
+    @Test
+    void splitFromHourLeavesMinuteEdgesRaw() {
+        LocalDateTime from = DAY.plusHours(10).plusMinutes(30);
+        LocalDateTime to = DAY.plusDays(1).plusMinutes(5);
+
+        List<HitRange> ranges = HitRange.split(from, to, RollupGranularity.HOUR);
+
+        assertThat(ranges).containsExactly(
+                new HitRange(null, from, DAY.plusHours(11)),
+                new HitRange(null, DAY.plusDays(1), to),
+                new HitRange(RollupGranularity.HOUR, DAY.plusHours(11), DAY.plusDays(1)));
+        assertCovers(ranges, from, to);
+    }
+
+    @Test
+    void splitOfShortRangeIsRaw() {
+        LocalDateTime from = DAY.plusSeconds(10);
+        LocalDateTime to = DAY.plusSeconds(50);
+
+        assertThat(HitRange.split(from, to, RollupGranularity.MINUTE)).containsExactly(new HitRange(null, from, to));
+        assertThat(HitRange.split(from, from, RollupGranularity.MINUTE)).isEmpty();
+    }
+
+    @Test
+    void splitOfAlignedRangeUsesOnlyDays() {
+        assertThat(HitRange.split(DAY, DAY.plusDays(7), RollupGranularity.MINUTE))
+                .containsExactly(new HitRange(RollupGranularity.DAY, DAY, DAY.plusDays(7)));
+    }
+
+    private void assertCovers(List<HitRange> ranges, LocalDateTime from, LocalDateTime to) {
+        List<HitRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing(HitRange::getFrom));
+
+        assertThat(sorted.get(0).getFrom()).isEqualTo(from);
+        assertThat(sorted.get(sorted.size() - 1).getTo()).isEqualTo(to);
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i).getFrom()).isEqualTo(sorted.get(i - 1).getTo());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.partition;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.TestDatabase;
+import ru.practicum.migration.IpSketchBackfillMigration;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitPartitionManagerTest {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int MONTHS_AHEAD = 2;
+    private static final int RETENTION_MONTHS = 4;
+
+    private final YearMonth current = YearMonth.now();
+    private JdbcTemplate jdbcTemplate;
+    private HitPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestDatabase.create("stats_partitions");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .javaMigrations(new IpSketchBackfillMigration(0.02))
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        partitionManager = new HitPartitionManager(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), MONTHS_AHEAD, RETENTION_MONTHS);
+    }
+
+    @Test
+    void maintainCreatesMonthPartitionsAndMovesRowsOutOfDefault() {
+        // до первого обслуживания все посещения лежат в секции по умолчанию, как после миграции V2
+        insertHits(current, 100);
+        insertHits(current.minusMonths(2), 40);
+
+        partitionManager.maintain();
+
+        assertThat(partitions()).containsExactly(name(current.minusMonths(2)), name(current),
+                name(current.plusMonths(1)), name(current.plusMonths(2)));
+        assertThat(count("endpoint_hits_default")).isZero();
+        assertThat(count(name(current))).isEqualTo(100);
+        assertThat(count(name(current.minusMonths(2)))).isEqualTo(40);
+        assertThat(count("endpoint_hits")).isEqualTo(140);
+    }
+
+    @Test
+    void maintainDropsPartitionsAndDefaultRowsOutsideRetention() {
+        YearMonth expired = current.minusMonths(RETENTION_MONTHS);
+        jdbcTemplate.execute("CREATE TABLE " + name(expired) + " PARTITION OF endpoint_hits FOR VALUES FROM ('" +
+                expired.atDay(1) + "') TO ('" + expired.plusMonths(1).atDay(1) + "')");
+        insertHits(expired, 10);
+        // строка старше срока хранения, для месяца которой секции нет
+        insertHits(current.minusMonths(RETENTION_MONTHS + 2), 5);
+        insertHits(current.minusMonths(RETENTION_MONTHS - 1), 7);
+
+        partitionManager.maintain();
+
+        assertThat(partitions()).doesNotContain(name(expired), name(current.minusMonths(RETENTION_MONTHS + 2)))
+                .contains(name(current.minusMonths(RETENTION_MONTHS - 1)));
+        assertThat(count("endpoint_hits")).isEqualTo(7);
+        assertThat(count("endpoint_hits_default")).isZero();
+    }
+
+    @Test
+    void maintainIsIdempotentAndNewHitsLandInMonthPartition() {
+        partitionManager.maintain();
+        List<String> partitions = partitions();
+
+        partitionManager.maintain();
+        insertHits(current, 3);
+
+        assertThat(partitions()).isEqualTo(partitions);
+        assertThat(count(name(current))).isEqualTo(3);
+        assertThat(count("endpoint_hits_default")).isZero();
+    }
+
+    @Test
+    void monthQueryScansOnlyItsPartition() {
+        insertHits(current, 50);
+        insertHits(current.plusMonths(1), 50);
+        partitionManager.maintain();
+
+        LocalDateTime from = current.atDay(1).atStartOfDay();
+        LocalDateTime to = current.plusMonths(1).atDay(1).atStartOfDay();
+
+        assertThat(partitionManager.findScannedPartitions(from, to)).containsExactly(name(current));
+        assertThat(partitionManager.findScannedPartitions(from.plusDays(3), from.plusDays(5)))
+                .containsExactly(name(current));
+        assertThat(partitionManager.findScannedPartitions(from, to.plusDays(1)))
+                .containsExactly(name(current), name(current.plusMonths(1)));
+    }
+
+    private void insertHits(YearMonth month, int hits) {
+        jdbcTemplate.update("INSERT INTO endpoint_hits (app, uri, ip, timestamp) " +
+                        "SELECT 'ewm-main-service', '/events/' || g % 10, '10.0.0.' || g, " +
+                        "CAST(? AS TIMESTAMP) + g * INTERVAL '1 minute' FROM generate_series(1, ?) g",
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()), hits);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'endpoint_hits' AND c.relname <> 'endpoint_hits_default' ORDER BY c.relname",
+                String.class);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private String name(YearMonth month) {
+        return "endpoint_hits_p" + month.format(SUFFIX);
+    }
+}
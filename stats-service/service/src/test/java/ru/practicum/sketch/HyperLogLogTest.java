@@ -0,0 +1,158 @@
+package ru.practicum.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+    private static final double ERROR_BOUND = 0.02;
+    private static final int PRECISION = HyperLogLog.precisionForErrorBound(ERROR_BOUND);
+    private static final int SETS = 64;
+
+    @Test
+    void errorBoundGivesPrecisionTwelve() {
+        assertThat(PRECISION).isEqualTo(12);
+    }
+
+    // отдельная оценка отклоняется больше чем на стандартную ошибку примерно в трети случаев, поэтому с заявленной
+    // сравнивается среднеквадратичная ошибка по нескольким независимым наборам значений
+    @Test
+    void estimateStaysWithinErrorBound() {
+        for (int cardinality : new int[]{100, 1_000, 5_000, 20_000, 200_000}) {
+            assertThat(rootMeanSquareError(cardinality)).as("cardinality %d", cardinality).isLessThan(ERROR_BOUND);
+        }
+    }
+
+    // линейный подсчёт используется примерно до 3 * m = 12288 значений, дальше гармоническое среднее регистров;
+    // на переходе оценка не должна смещаться, а ошибка линейного подсчёта там немного выше стандартной
+    @Test
+    void estimateHasNoBiasAroundLinearCountingThreshold() {
+        assertThat(sketch("10.0.", 0, 10).estimate()).isEqualTo(10);
+        assertThat(sketch("10.0.", 0, 200).estimate()).isCloseTo(200, within(2L));
+
+        for (int cardinality : new int[]{9_000, 10_500, 12_000, 13_000, 15_000}) {
+            double errorSum = 0;
+            for (int set = 0; set < SETS; set++) {
+                errorSum += relativeError(set, cardinality);
+            }
+
+            assertThat(Math.abs(errorSum / SETS)).as("cardinality %d", cardinality).isLessThan(ERROR_BOUND / 2);
+            assertThat(rootMeanSquareError(cardinality)).as("cardinality %d", cardinality)
+                    .isLessThan(ERROR_BOUND * 1.25);
+        }
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        HyperLogLog first = sketch("10.0.", 0, 6_000);
+        HyperLogLog second = sketch("10.0.", 4_000, 10_000);
+        byte[] union = sketch("10.0.", 0, 10_000).toBytes();
+
+        assertThat(first.copy().merge(second).toBytes()).isEqualTo(union);
+        assertThat(second.copy().merge(first).toBytes()).isEqualTo(union);
+    }
+
+    @Test
+    void sparseSketchesMergeIntoSketchOfUnion() {
+        HyperLogLog first = sketch("10.0.", 0, 30);
+        HyperLogLog second = sketch("10.0.", 20, 50);
+
+        assertThat(first.merge(second).toBytes()).isEqualTo(sketch("10.0.", 0, 50).toBytes());
+    }
+
+    @Test
+    void reduceGivesSketchOfLowerPrecision() {
+        for (int cardinality : new int[]{50, 5_000, 50_000}) {
+            HyperLogLog precise = sketch(14, "10.0.", 0, cardinality);
+
+            assertThat(precise.reduce(PRECISION).toBytes()).isEqualTo(sketch("10.0.", 0, cardinality).toBytes());
+            assertThat(precise.reduce(16).toBytes()).isEqualTo(precise.toBytes());
+        }
+    }
+
+    @Test
+    void mergeAcrossPrecisionsUsesLowerPrecision() {
+        HyperLogLog precise = sketch(14, "10.0.", 0, 6_000);
+        HyperLogLog coarse = sketch("10.0.", 4_000, 10_000);
+        byte[] union = sketch("10.0.", 0, 10_000).toBytes();
+
+        HyperLogLog merged = precise.copy().merge(coarse);
+        assertThat(merged.getPrecision()).isEqualTo(PRECISION);
+        assertThat(merged.toBytes()).isEqualTo(union);
+        assertThat(coarse.copy().merge(precise).toBytes()).isEqualTo(union);
+        // исходный скетч большей точности не меняется
+        assertThat(precise.toBytes()).isEqualTo(sketch(14, "10.0.", 0, 6_000).toBytes());
+    }
+
+    @Test
+    void smallSketchIsStoredSparse() {
+        HyperLogLog sketch = sketch("10.0.", 0, 40);
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes.length).isLessThanOrEqualTo(2 + 40 * 3);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void largeSketchIsStoredDense() {
+        HyperLogLog sketch = sketch("10.0.", 0, 20_000);
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes).hasSize(1 << PRECISION);
+        assertThat(HyperLogLog.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    // скетчи, сохранённые раньше в плотном формате, читаются и при следующей записи становятся разреженными
+    @Test
+    void denseBytesOfSmallSketchAreReadAsSparse() {
+        byte[] dense = new byte[1 << PRECISION];
+        dense[7] = 3;
+        dense[1000] = 1;
+        dense[4095] = 12;
+
+        HyperLogLog sketch = HyperLogLog.fromBytes(dense);
+
+        assertThat(sketch.toBytes()).hasSize(2 + 3 * 3);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes()).estimate()).isEqualTo(sketch.estimate()).isEqualTo(3);
+    }
+
+    @Test
+    void fromBytesRejectsCorruptedSketches() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[100])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{-1, 12, 0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{-1, 12, (byte) 0xff, 0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HyperLogLog sketch(String prefix, int from, int to) {
+        return sketch(PRECISION, prefix, from, to);
+    }
+
+    private HyperLogLog sketch(int precision, String prefix, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = from; i < to; i++) {
+            sketch.add(prefix + i);
+        }
+
+        return sketch;
+    }
+
+    private double rootMeanSquareError(int cardinality) {
+        double squareSum = 0;
+        for (int set = 0; set < SETS; set++) {
+            double error = relativeError(set, cardinality);
+            squareSum += error * error;
+        }
+
+        return Math.sqrt(squareSum / SETS);
+    }
+
+    private double relativeError(int set, int cardinality) {
+        return (sketch("set" + set + "-", 0, cardinality).estimate() - cardinality) / (double) cardinality;
+    }
+}
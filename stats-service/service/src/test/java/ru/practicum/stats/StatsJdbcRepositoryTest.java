@@ -0,0 +1,124 @@
+package ru.practicum.stats;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.TestDatabase;
+import ru.practicum.migration.IpSketchBackfillMigration;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.ViewStats;
+import ru.practicum.sketch.HyperLogLog;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsJdbcRepositoryTest {
+    private static final String APP = "ewm-main-service";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private StatsJdbcRepository statsJdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestDatabase.create("stats_repository");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .javaMigrations(new IpSketchBackfillMigration(0.02))
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        statsJdbcRepository = new StatsJdbcRepository(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource),
+                0.02, 500);
+    }
+
+    @Test
+    void topUniqueViewStatsRanksByDistinctIpsAndKeepsCandidatesWithoutViews() {
+        // у /events/1 больше посещений, но меньше разных ip, чем у /events/2
+        save(hits("/events/1", 10, 2));
+        save(hits("/events/2", 4, 4));
+        save(hits("/events/3", 3, 3));
+        List<String> uris = List.of("/events/4", "/events/1", "/events/3", "/events/2");
+
+        List<ViewStats> top = statsJdbcRepository.getTopUniqueViewStats(START, START.plusDays(1), uris, 0, 10);
+
+        assertThat(top).extracting(ViewStats::getUri).containsExactly("/events/2", "/events/3", "/events/1",
+                "/events/4");
+        assertThat(top).extracting(ViewStats::getHits).containsExactly(4L, 3L, 2L, 0L);
+        assertThat(statsJdbcRepository.getTopUniqueViewStats(START, START.plusDays(1), uris, 1, 2))
+                .extracting(ViewStats::getUri).containsExactly("/events/3", "/events/1");
+        assertThat(statsJdbcRepository.getTopViewStats(START, START.plusDays(1), uris, 0, 1))
+                .extracting(ViewStats::getUri).containsExactly("/events/1");
+    }
+
+    @Test
+    void topUniqueViewStatsCountsOnlyHitsInRange() {
+        save(hits("/events/1", 3, 3));
+        List<EndpointHit> late = hits("/events/2", 5, 5).stream()
+                .peek(hit -> hit.setTimestamp(hit.getTimestamp().plusDays(2)))
+                .collect(Collectors.toList());
+        save(late);
+
+        List<ViewStats> top = statsJdbcRepository.getTopUniqueViewStats(START, START.plusDays(1),
+                List.of("/events/2", "/events/1"), 0, 10);
+
+        assertThat(top).extracting(ViewStats::getUri).containsExactly("/events/1", "/events/2");
+        assertThat(top).extracting(ViewStats::getHits).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void addToRollupsAccumulatesHitsAndMergesSketchesAcrossBatches() {
+        List<EndpointHit> first = hits("/events/1", 30, 30);
+        // вторая пачка повторяет часть ip первой и добавляет новые
+        List<EndpointHit> second = hits("/events/1", 50, 50).subList(20, 50);
+        save(first);
+        save(second);
+
+        assertThat(rollupHits("MINUTE")).isEqualTo(60);
+        assertThat(rollupHits("HOUR")).isEqualTo(60);
+        assertThat(rollupHits("DAY")).isEqualTo(60);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM endpoint_hits_rollup " +
+                "WHERE granularity = 'MINUTE' AND ip_sketch IS NOT NULL", Long.class)).isZero();
+
+        HyperLogLog expected = new HyperLogLog(HyperLogLog.precisionForErrorBound(0.02));
+        for (int i = 0; i < 50; i++) {
+            expected.add("10.0.0." + i);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT ip_sketch FROM endpoint_hits_rollup " +
+                "WHERE granularity = 'DAY'", byte[].class)).isEqualTo(expected.toBytes());
+        assertThat(statsJdbcRepository.getUniqueViewStats(START, START.plusDays(1), List.of("/events/1")))
+                .extracting(ViewStats::getHits).containsExactly(50L);
+    }
+
+    private long rollupHits(String granularity) {
+        return jdbcTemplate.queryForObject("SELECT SUM(hits) FROM endpoint_hits_rollup WHERE granularity = ?",
+                Long.class, granularity);
+    }
+
+    private List<EndpointHit> hits(String uri, int count, int ips) {
+        List<EndpointHit> hits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            hits.add(EndpointHit.builder()
+                    .app(APP)
+                    .uri(uri)
+                    .ip("10.0.0." + i % ips)
+                    .timestamp(START.plusMinutes(i))
+                    .build());
+        }
+
+        return hits;
+    }
+
+    private void save(List<EndpointHit> hits) {
+        statsJdbcRepository.saveAll(hits);
+        statsJdbcRepository.addToRollups(hits);
+    }
+}